@@ -0,0 +1,72 @@
+package ru.practicum.shareit.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.Service.BookingService;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.mappers.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.RequestState;
+import ru.practicum.shareit.booking.model.Role;
+import ru.practicum.shareit.booking.repository.BookingDbStorage;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class BookingBenchmark {
+    @Param({"ALL", "CURRENT", "PAST", "FUTURE", "WAITING", "REJECTED", "EXPIRED"})
+    public RequestState state;
+
+    @Param({"USER", "OWNER"})
+    public Role role;
+
+    @Param("100")
+    public int size;
+
+    private BookingService bookingService;
+    private BookingMapper bookingMapper;
+    private List<Booking> bookings;
+
+    @Setup(Level.Trial)
+    public void setUp(SeededContext context) {
+        bookingService = context.getBean(BookingService.class);
+        bookingMapper = context.getBean(BookingMapper.class);
+        BookingDbStorage bookingDbStorage = context.getBean(BookingDbStorage.class);
+        bookings = context.getBean(TransactionTemplate.class).execute(status -> {
+            try (Stream<Booking> stream = bookingDbStorage.findByItemOwnerIdOrderByStart(SeededContext.HEAVY_USER_ID,
+                    BookingCursor.FIRST.start(), BookingCursor.FIRST.id(), Pageable.unpaged())) {
+                return stream.toList();
+            }
+        });
+    }
+
+    @Benchmark
+    public List<BookingDto> getAllBookingsFromUser() {
+        return bookingService.getAllBookingsFromUser(SeededContext.HEAVY_USER_ID, state, role, null, 0, size);
+    }
+
+    @Benchmark
+    public List<BookingDto> toBookingDtoList() {
+        return bookingMapper.toBookingDtoList(bookings);
+    }
+}
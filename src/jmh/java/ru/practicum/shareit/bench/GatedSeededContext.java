@@ -0,0 +1,26 @@
+package ru.practicum.shareit.bench;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.stream.Stream;
+
+@State(Scope.Benchmark)
+public class GatedSeededContext extends SeededContext {
+    @Param("10")
+    public int poolSize;
+
+    @Param("10")
+    public int permits;
+
+    @Override
+    protected String[] properties() {
+        return Stream.concat(Stream.of(super.properties()), Stream.of(
+                "spring.datasource.hikari.maximum-pool-size=" + poolSize,
+                "shareit.jdbc.concurrency-limit.enabled=true",
+                "shareit.jdbc.concurrency-limit.permits=" + permits,
+                "shareit.jdbc.concurrency-limit.timeout=60s"
+        )).toArray(String[]::new);
+    }
+}
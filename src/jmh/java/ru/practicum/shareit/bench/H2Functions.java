@@ -0,0 +1,13 @@
+package ru.practicum.shareit.bench;
+
+public final class H2Functions {
+    private H2Functions() {
+    }
+
+    public static double wordSimilarity(String text, String value) {
+        if (text == null || value == null) {
+            return 0;
+        }
+        return value.toLowerCase().contains(text.toLowerCase()) ? (double) text.length() / value.length() : 0;
+    }
+}
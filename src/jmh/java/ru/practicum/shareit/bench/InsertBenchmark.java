@@ -0,0 +1,140 @@
+package ru.practicum.shareit.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingDbStorage;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.CommentDbStorage;
+import ru.practicum.shareit.item.repository.ItemDbStorage;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserDbStorage;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class InsertBenchmark {
+    private static final int ROWS = 500;
+    private static final String INSERT_BOOKING = """
+            insert into bookings (booking_id, start, finish, item_id, booker_id, status, version)
+            values (next value for bookings_seq, ?, ?, ?, ?, ?, 0)
+            """;
+    private static final String INSERT_COMMENT = """
+            insert into comments (comment_id, comment_text, item_id, author_id, created_date)
+            values (next value for comments_seq, ?, ?, ?, ?)
+            """;
+
+    // "pooled" saves through Hibernate with allocationSize = 50 and JDBC batching. "identity" reproduces the old
+    // GenerationType.IDENTITY mapping: one unbatched insert per row whose generated key is read back.
+    @Param({"pooled", "identity"})
+    public String ids;
+
+    private TransactionTemplate transactionTemplate;
+    private JdbcTemplate jdbcTemplate;
+    private BookingDbStorage bookingDbStorage;
+    private CommentDbStorage commentDbStorage;
+    private ItemDbStorage itemDbStorage;
+    private UserDbStorage userDbStorage;
+
+    @Setup(Level.Trial)
+    public void setUp(SeededContext context) {
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        bookingDbStorage = context.getBean(BookingDbStorage.class);
+        commentDbStorage = context.getBean(CommentDbStorage.class);
+        itemDbStorage = context.getBean(ItemDbStorage.class);
+        userDbStorage = context.getBean(UserDbStorage.class);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void insertBookings() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Item item = itemDbStorage.getReferenceById(1L);
+            User booker = userDbStorage.getReferenceById(SeededContext.HEAVY_USER_ID);
+            LocalDateTime start = LocalDateTime.now().plusYears(5);
+            if (ids.equals("identity")) {
+                for (int i = 0; i < ROWS; i++) {
+                    insertReturningKey(INSERT_BOOKING, "booking_id", Timestamp.valueOf(start.plusHours(i)),
+                            Timestamp.valueOf(start.plusHours(i + 1)), 1L, SeededContext.HEAVY_USER_ID,
+                            Status.WAITING.name());
+                }
+                return;
+            }
+            List<Booking> bookings = new ArrayList<>(ROWS);
+            for (int i = 0; i < ROWS; i++) {
+                bookings.add(Booking.builder()
+                        .start(start.plusHours(i))
+                        .end(start.plusHours(i + 1))
+                        .item(item)
+                        .booker(booker)
+                        .status(Status.WAITING)
+                        .build());
+            }
+            bookingDbStorage.saveAll(bookings);
+        });
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void insertComments() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Item item = itemDbStorage.getReferenceById(1L);
+            User author = userDbStorage.getReferenceById(SeededContext.HEAVY_USER_ID);
+            if (ids.equals("identity")) {
+                for (int i = 0; i < ROWS; i++) {
+                    insertReturningKey(INSERT_COMMENT, "comment_id", "comment " + i, 1L,
+                            SeededContext.HEAVY_USER_ID, Timestamp.valueOf(LocalDateTime.now()));
+                }
+                return;
+            }
+            List<Comment> comments = new ArrayList<>(ROWS);
+            for (int i = 0; i < ROWS; i++) {
+                comments.add(Comment.builder()
+                        .text("comment " + i)
+                        .item(item)
+                        .author(author)
+                        .createdDate(LocalDateTime.now())
+                        .build());
+            }
+            commentDbStorage.saveAll(comments);
+        });
+    }
+
+    private void insertReturningKey(String sql, String keyColumn, Object... args) {
+        GeneratedKeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql, new String[]{keyColumn});
+            for (int i = 0; i < args.length; i++) {
+                statement.setObject(i + 1, args[i]);
+            }
+            return statement;
+        }, keyHolder);
+    }
+}
@@ -0,0 +1,74 @@
+package ru.practicum.shareit.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemDtoTime;
+import ru.practicum.shareit.item.mappers.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemDbStorage;
+import ru.practicum.shareit.item.service.ItemService;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ItemBenchmark {
+    @Param("drill")
+    public String text;
+
+    @Param("100")
+    public int size;
+
+    private ItemService itemService;
+    private ItemMapper itemMapper;
+    private List<Item> items;
+    private int itemCount;
+
+    @Setup(Level.Trial)
+    public void setUp(SeededContext context) {
+        itemService = context.getBean(ItemService.class);
+        itemMapper = context.getBean(ItemMapper.class);
+        ItemDbStorage itemDbStorage = context.getBean(ItemDbStorage.class);
+        items = context.getBean(TransactionTemplate.class)
+                .execute(status -> itemDbStorage.findItemByOwnerId(SeededContext.HEAVY_USER_ID));
+        itemCount = context.items;
+    }
+
+    @Benchmark
+    public ItemDtoTime findItemDtoTimeById() {
+        return itemService.findItemDtoTimeById(1 + ThreadLocalRandom.current().nextLong(itemCount)).body();
+    }
+
+    @Benchmark
+    public List<ItemDtoTime> getAllItemsOfUser() {
+        return itemService.getAllItemsOfUser(SeededContext.HEAVY_USER_ID);
+    }
+
+    @Benchmark
+    public List<ItemDto> searchItemsForRental() {
+        return itemService.searchItemsForRental(text, null, null, 0, size).body();
+    }
+
+    @Benchmark
+    public List<ItemDtoTime> toItemDtoTime() {
+        return items.stream().map(itemMapper::toItemDtoTime).toList();
+    }
+}
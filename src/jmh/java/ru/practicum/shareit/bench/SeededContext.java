@@ -0,0 +1,119 @@
+package ru.practicum.shareit.bench;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItApp;
+import ru.practicum.shareit.booking.model.Status;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+@State(Scope.Benchmark)
+public class SeededContext {
+    public static final long HEAVY_USER_ID = 1L;
+
+    @Param("1000")
+    public int users;
+
+    @Param("5000")
+    public int items;
+
+    @Param("50000")
+    public int bookings;
+
+    @Param("10000")
+    public int comments;
+
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItApp.class)
+                .web(WebApplicationType.NONE)
+                .properties(properties())
+                .run();
+        seed(context.getBean(JdbcTemplate.class));
+    }
+
+    protected String[] properties() {
+        return new String[]{
+                "spring.datasource.driverClassName=org.h2.Driver",
+                "spring.datasource.url=jdbc:h2:mem:bench;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                "spring.datasource.username=sa",
+                "spring.datasource.password=",
+                "spring.flyway.enabled=false",
+                "spring.jpa.hibernate.ddl-auto=create-drop",
+                "shareit.booking-archive.enabled=false",
+                "shareit.booking-expiry.enabled=false",
+                "logging.level.root=WARN",
+                "logging.level.ru.practicum.shareit=WARN",
+                "logging.level.org.springframework.transaction.interceptor=WARN",
+                "logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN"
+        };
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        Random random = new Random(42);
+        jdbcTemplate.execute("CREATE ALIAS IF NOT EXISTS word_similarity FOR '"
+                + H2Functions.class.getName() + ".wordSimilarity'");
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 1; i <= users; i++) {
+            rows.add(new Object[]{i, "user" + i, "user" + i + "@mail.ru"});
+        }
+        jdbcTemplate.batchUpdate("insert into users (user_id, name, email) values (?, ?, ?)", rows);
+        rows.clear();
+        for (int i = 1; i <= items; i++) {
+            rows.add(new Object[]{i, "item " + i + " " + randomWord(random), "description " + randomWord(random),
+                    random.nextInt(10) != 0, heavyOrRandom(random, users)});
+        }
+        jdbcTemplate.batchUpdate("insert into items (item_id, name, description, available, owner_id) values (?, ?, ?, ?, ?)", rows);
+        rows.clear();
+        LocalDateTime now = LocalDateTime.now();
+        Status[] statuses = Status.values();
+        for (int i = 1; i <= bookings; i++) {
+            LocalDateTime start = now.plusHours(random.nextInt(24 * 365 * 2) - 24 * 365);
+            rows.add(new Object[]{i, Timestamp.valueOf(start), Timestamp.valueOf(start.plusHours(1 + random.nextInt(72))),
+                    1 + random.nextInt(items), heavyOrRandom(random, users),
+                    statuses[random.nextInt(statuses.length)].name()});
+        }
+        jdbcTemplate.batchUpdate("insert into bookings (booking_id, start, finish, item_id, booker_id, status) values (?, ?, ?, ?, ?, ?)", rows);
+        rows.clear();
+        for (int i = 1; i <= comments; i++) {
+            rows.add(new Object[]{i, "comment " + i, 1 + random.nextInt(items), 1 + random.nextInt(users),
+                    Timestamp.valueOf(now.minusDays(random.nextInt(365)))});
+        }
+        jdbcTemplate.batchUpdate("insert into comments (comment_id, comment_text, item_id, author_id, created_date) values (?, ?, ?, ?, ?)", rows);
+        for (String sequence : new String[]{"users_seq", "items_seq", "bookings_seq", "comments_seq"}) {
+            jdbcTemplate.execute("alter sequence " + sequence + " restart with " + (Math.max(Math.max(users, items), Math.max(bookings, comments)) + 50));
+        }
+    }
+
+    private static long heavyOrRandom(Random random, int bound) {
+        return random.nextInt(10) == 0 ? HEAVY_USER_ID : 1 + random.nextInt(bound);
+    }
+
+    private static String randomWord(Random random) {
+        String[] words = {"drill", "saw", "hammer", "ladder", "tent", "bike", "kayak", "camera", "projector", "mixer"};
+        return words[random.nextInt(words.length)];
+    }
+}
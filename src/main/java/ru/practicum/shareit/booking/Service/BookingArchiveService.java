@@ -0,0 +1,48 @@
+package ru.practicum.shareit.booking.Service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.repository.BookingDbStorage;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.booking-archive.enabled", havingValue = "true", matchIfMissing = true)
+public class BookingArchiveService {
+    private final BookingDbStorage bookingDbStorage;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    @Value("${shareit.booking-archive.horizon:P365D}")
+    private Duration horizon;
+    @Value("${shareit.booking-archive.batch-size:1000}")
+    private int batchSize;
+    @Value("${shareit.booking-archive.months-ahead:3}")
+    private int monthsAhead;
+
+    @Scheduled(cron = "${shareit.booking-archive.cron:0 0 3 * * *}")
+    public void archive() {
+        LocalDate month = LocalDate.now().withDayOfMonth(1);
+        Integer created = transactionTemplate.execute(status ->
+                bookingDbStorage.createPartitions(month, month.plusMonths(monthsAhead + 1)));
+        log.info("Booking partitions created: {}", created);
+        LocalDateTime before = LocalDateTime.now().minus(horizon);
+        int total = 0;
+        int moved;
+        do {
+            moved = transactionTemplate.execute(status -> bookingDbStorage.archiveFinishedBefore(before, batchSize));
+            total += moved;
+        } while (moved == batchSize);
+        meterRegistry.counter("shareit.bookings.archived").increment(total);
+        log.info("Bookings finished before {} archived: {}", before, total);
+    }
+}
@@ -0,0 +1,73 @@
+package ru.practicum.shareit.booking.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.ExpiredBooking;
+import ru.practicum.shareit.booking.model.BookingChangedEvent;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingDbStorage;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "shareit.booking-expiry.enabled", havingValue = "true", matchIfMissing = true)
+public class BookingExpiryService {
+    private final BookingDbStorage bookingDbStorage;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final Timer sweepTimer;
+    private final DistributionSummary sweepSize;
+    private final Counter expired;
+    @Value("${shareit.booking-expiry.batch-size:200}")
+    private int batchSize;
+
+    public BookingExpiryService(BookingDbStorage bookingDbStorage, TransactionTemplate transactionTemplate,
+                                ApplicationEventPublisher applicationEventPublisher, MeterRegistry meterRegistry) {
+        this.bookingDbStorage = bookingDbStorage;
+        this.transactionTemplate = transactionTemplate;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.sweepTimer = Timer.builder("shareit.bookings.expiry.sweep")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.sweepSize = DistributionSummary.builder("shareit.bookings.expiry.sweep.size")
+                .register(meterRegistry);
+        this.expired = meterRegistry.counter("shareit.bookings.expired");
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-expiry.delay:PT1M}")
+    public void sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        int total = sweepTimer.record(() -> {
+            int swept = 0;
+            int batch;
+            do {
+                batch = transactionTemplate.execute(status -> expireBatch(now));
+                swept += batch;
+            } while (batch == batchSize);
+            return swept;
+        });
+        sweepSize.record(total);
+        if (total > 0) {
+            log.info("Waiting bookings started before {} expired: {}", now, total);
+        }
+    }
+
+    private int expireBatch(LocalDateTime now) {
+        List<ExpiredBooking> bookings = bookingDbStorage.expireWaitingStartedBefore(now, batchSize);
+        bookings.forEach(booking -> applicationEventPublisher.publishEvent(
+                new BookingChangedEvent(booking.getBookingId(), booking.getItemId(), Status.EXPIRED)));
+        expired.increment(bookings.size());
+        return bookings.size();
+    }
+}
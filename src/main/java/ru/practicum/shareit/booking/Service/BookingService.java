@@ -2,11 +2,14 @@ package ru.practicum.shareit.booking.Service;
 
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoRequest;
+import ru.practicum.shareit.booking.dto.OwnerStatsDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.RequestState;
 import ru.practicum.shareit.booking.model.Role;
 
+import java.time.YearMonth;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface BookingService {
     Booking createBooking(Long userId, BookingDtoRequest bookingDtoRequest);
@@ -17,5 +20,10 @@ public interface BookingService {
 
     BookingDto getBookingDtoById(Long userId, Long bookingId);
 
-    List<BookingDto> getAllBookingsFromUser(Long userId, RequestState state, Role role);
+    List<BookingDto> getAllBookingsFromUser(Long userId, RequestState state, Role role,
+                                            String after, int from, int size);
+
+    void streamAllBookingsFromUser(Long userId, RequestState state, Role role, Consumer<BookingDto> consumer);
+
+    OwnerStatsDto getOwnerStats(Long ownerId, YearMonth from, YearMonth to);
 }
@@ -1,13 +1,30 @@
 package ru.practicum.shareit.booking.Service;
 
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoRequest;
+import ru.practicum.shareit.booking.dto.ItemStatsDto;
+import ru.practicum.shareit.booking.dto.MonthStatsDto;
+import ru.practicum.shareit.booking.dto.OwnerStatsDto;
+import ru.practicum.shareit.booking.dto.OwnerStatsRow;
 import ru.practicum.shareit.booking.mappers.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingChangedEvent;
 import ru.practicum.shareit.booking.model.RequestState;
 import ru.practicum.shareit.booking.model.Role;
 import ru.practicum.shareit.booking.model.Status;
@@ -15,32 +32,55 @@ import ru.practicum.shareit.booking.repository.BookingDbStorage;
 import ru.practicum.shareit.exception.BadRequest;
 import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemSnapshot;
+import ru.practicum.shareit.item.mappers.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserSnapshot;
+import ru.practicum.shareit.user.mappers.UserMapper;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.web.OffsetPageRequest;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
+@Timed(value = "shareit.service", histogram = true)
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class BookingServiceImpl implements BookingService {
+    private static final List<Status> ACTIVE_STATUSES = List.of(Status.WAITING, Status.APPROVED);
+    private static final int MAX_STATS_MONTHS = 24;
+    private static final String EXCLUSION_VIOLATION = "23P01";
+    private static final Pattern OVERLAP_CONSTRAINT = Pattern.compile("ex_\\w+_overlap");
     private final BookingMapper bookingMapper;
+    private final ItemMapper itemMapper;
+    private final UserMapper userMapper;
     private final UserService userService;
     private final ItemService itemService;
     private final BookingDbStorage bookingDbStorage;
+    private final EntityManager entityManager;
+    private final MeterRegistry meterRegistry;
+    private final ApplicationEventPublisher applicationEventPublisher;
 
     @Override
     @Transactional
     public Booking createBooking(Long userId, BookingDtoRequest bookingDtoRequest) {
         log.info("Create booking");
-        User user = userService.findUserById(userId);
-        Item item = itemService.findItemById(bookingDtoRequest.getItemId());
-        if (!item.getAvailable()) {
+        UserSnapshot user = userService.findUserById(userId);
+        ItemSnapshot item = itemService.findItemById(bookingDtoRequest.getItemId());
+        if (!item.available()) {
             log.error("The item is not available for booking");
             throw new BadRequest("The item is not available for booking");
         }
@@ -52,16 +92,32 @@ public class BookingServiceImpl implements BookingService {
             log.error("The end time cannot be earlier than the start time");
             throw new BadRequest("The end time cannot be earlier than the start time");
         }
+        bookingDbStorage.lockItem(item.id());
+        if (bookingDbStorage.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(item.id(), ACTIVE_STATUSES,
+                bookingDtoRequest.getEnd(), bookingDtoRequest.getStart())) {
+            log.error("The item is already booked for this time");
+            throw new ConflictException("The item is already booked for this time");
+        }
         Booking booking = Booking.builder()
                 .start(bookingDtoRequest.getStart())
                 .end(bookingDtoRequest.getEnd())
-                .item(item)
-                .booker(user)
+                .item(itemService.getItemReference(item.id()))
+                .booker(userService.getUserReference(userId))
                 .status(Status.WAITING)
                 .build();
-        Booking bookingCreated = bookingDbStorage.save(booking);
+        Booking bookingCreated = saveBooking(booking);
+        applicationEventPublisher.publishEvent(new BookingChangedEvent(bookingCreated.getId(), item.id(),
+                bookingCreated.getStatus()));
         log.info("Booking created {}", bookingCreated);
-        return bookingCreated;
+        return Booking.builder()
+                .id(bookingCreated.getId())
+                .start(bookingCreated.getStart())
+                .end(bookingCreated.getEnd())
+                .item(itemMapper.toItem(item))
+                .booker(userMapper.toUser(user))
+                .status(bookingCreated.getStatus())
+                .version(bookingCreated.getVersion())
+                .build();
     }
 
     @Override
@@ -81,34 +137,68 @@ public class BookingServiceImpl implements BookingService {
     @Transactional
     public Booking updateBookingApprove(Long userId, Long bookingId, boolean approve) {
         log.info("Update booking approve");
-        User user;
         try {
-            user = userService.findUserById(userId);
+            userService.findUserById(userId);
         } catch (Exception e) {
             throw new BadRequest(e.getMessage());
         }
         Booking booking = getBooking(bookingId);
-        if (!booking.getItem().getOwner().getId().equals(user.getId())) {
+        if (!booking.getItem().getOwner().getId().equals(userId)) {
             log.error("Only the owner of the item can confirm the reservation");
             throw new BadRequest("Only the owner of the item can confirm the reservation");
         }
+        if (booking.getStatus() == Status.EXPIRED) {
+            log.error("The booking has expired");
+            throw new BadRequest("The booking has expired");
+        }
         if (approve) {
             booking.setStatus(Status.APPROVED);
         } else {
             booking.setStatus(Status.REJECTED);
         }
-        Booking bookingUpdated = bookingDbStorage.save(booking);
+        Booking bookingUpdated = saveBooking(booking);
+        applicationEventPublisher.publishEvent(new BookingChangedEvent(bookingUpdated.getId(),
+                booking.getItem().getId(), bookingUpdated.getStatus()));
         log.info("Booking approved {}", bookingUpdated);
         return bookingUpdated;
     }
 
+    private Booking saveBooking(Booking booking) {
+        try {
+            return bookingDbStorage.saveAndFlush(booking);
+        } catch (DataIntegrityViolationException e) {
+            if (!isOverlapViolation(e)) {
+                throw e;
+            }
+            log.error("The item is already booked for this time", e);
+            throw new ConflictException("The item is already booked for this time");
+        } catch (ObjectOptimisticLockingFailureException e) {
+            log.error("The booking was modified concurrently", e);
+            throw new ConflictException("The booking was modified concurrently");
+        }
+    }
+
+    private static boolean isOverlapViolation(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null
+                    && OVERLAP_CONSTRAINT.matcher(violation.getConstraintName()).matches()) {
+                return true;
+            }
+            if (cause instanceof SQLException sqlException
+                    && EXCLUSION_VIOLATION.equals(sqlException.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     public BookingDto getBookingDtoById(Long userId, Long bookingId) {
         log.info("Get booking dto by id: {}", bookingId);
-        User user = userService.findUserById(userId);
+        userService.findUserById(userId);
         Booking booking = getBooking(bookingId);
-        if (!booking.getItem().getOwner().getId().equals(user.getId())) {
-            if (!booking.getBooker().getId().equals(user.getId())) {
+        if (!booking.getItem().getOwner().getId().equals(userId)) {
+            if (!booking.getBooker().getId().equals(userId)) {
                 log.error("The user must be the owner of the item or the author of the reservation");
                 throw new BadRequest("The user must be the owner of the item or the author of the reservation");
             }
@@ -119,44 +209,137 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
-    public List<BookingDto> getAllBookingsFromUser(Long userId, RequestState state, Role role) {
+    public List<BookingDto> getAllBookingsFromUser(Long userId, RequestState state, Role role,
+                                                   String after, int from, int size) {
         log.info("Get all bookings from {} and state {}", role, state);
-        List<BookingDto> bookingDtoList = new ArrayList<>();
         userService.findUserById(userId);
+        BookingCursor cursor = after == null ? BookingCursor.FIRST : BookingCursor.decode(after);
+        Pageable page = after == null ? OffsetPageRequest.of(from, size) : PageRequest.of(0, size);
+        List<BookingDto> bookingDtoList;
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try (Stream<Booking> bookings = findAllBookingsFromUser(userId, state, role, cursor, page)) {
+            bookingDtoList = bookings.map(bookingMapper::toBookingDto).toList();
+        } finally {
+            sample.stop(bookingsTimer("shareit.bookings.list", state, role));
+        }
+        meterRegistry.counter("shareit.bookings.rows", "state", state.name(), "role", role.name())
+                .increment(bookingDtoList.size());
+        log.info("All bookings from {} and state {} size: {}", userId, state, bookingDtoList.size());
+        return bookingDtoList;
+    }
+
+    @Override
+    public void streamAllBookingsFromUser(Long userId, RequestState state, Role role, Consumer<BookingDto> consumer) {
+        log.info("Stream all bookings from {} and state {}", role, state);
+        userService.findUserById(userId);
+        Counter rows = meterRegistry.counter("shareit.bookings.rows", "state", state.name(), "role", role.name());
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try (Stream<Booking> bookings = findAllBookingsFromUser(userId, state, role, BookingCursor.FIRST,
+                Pageable.unpaged())) {
+            bookings.forEach(booking -> {
+                consumer.accept(bookingMapper.toBookingDto(booking));
+                entityManager.detach(booking);
+                rows.increment();
+            });
+        } finally {
+            sample.stop(bookingsTimer("shareit.bookings.stream", state, role));
+        }
+        log.info("All bookings from {} and state {} streamed", userId, state);
+    }
+
+    @Override
+    public OwnerStatsDto getOwnerStats(Long ownerId, YearMonth from, YearMonth to) {
+        log.info("Get booking stats of owner {} from {} to {}", ownerId, from, to);
+        if (to.isBefore(from)) {
+            throw new BadRequest("The end month cannot be earlier than the start month");
+        }
+        if (from.plusMonths(MAX_STATS_MONTHS).isBefore(to)) {
+            throw new BadRequest("The stats period cannot exceed " + MAX_STATS_MONTHS + " months");
+        }
+        userService.findUserById(ownerId);
+        Map<Long, ItemStatsDto> items = new LinkedHashMap<>();
+        for (OwnerStatsRow row : bookingDbStorage.findOwnerStats(ownerId, from.atDay(1).atStartOfDay(),
+                to.plusMonths(1).atDay(1).atStartOfDay())) {
+            YearMonth month = YearMonth.from(row.getMonth());
+            MonthStatsDto monthStats = MonthStatsDto.builder()
+                    .month(month)
+                    .bookings(row.getBookings())
+                    .approved(row.getApproved())
+                    .waiting(row.getWaiting())
+                    .rejected(row.getRejected())
+                    .bookedDays(row.getBookedDays())
+                    .utilisation(row.getBookedDays() / month.lengthOfMonth())
+                    .build();
+            ItemStatsDto itemStats = items.computeIfAbsent(row.getItemId(), itemId -> ItemStatsDto.builder()
+                    .itemId(itemId)
+                    .itemName(row.getItemName())
+                    .months(new ArrayList<>())
+                    .build());
+            itemStats.getMonths().add(monthStats);
+            itemStats.setBookings(itemStats.getBookings() + monthStats.getBookings());
+            itemStats.setApproved(itemStats.getApproved() + monthStats.getApproved());
+            itemStats.setWaiting(itemStats.getWaiting() + monthStats.getWaiting());
+            itemStats.setRejected(itemStats.getRejected() + monthStats.getRejected());
+            itemStats.setBookedDays(itemStats.getBookedDays() + monthStats.getBookedDays());
+        }
+        long days = ChronoUnit.DAYS.between(from.atDay(1), to.plusMonths(1).atDay(1));
+        items.values().forEach(itemStats -> itemStats.setUtilisation(itemStats.getBookedDays() / days));
+        return OwnerStatsDto.builder()
+                .from(from)
+                .to(to)
+                .items(new ArrayList<>(items.values()))
+                .build();
+    }
+
+    private Timer bookingsTimer(String name, RequestState state, Role role) {
+        return Timer.builder(name)
+                .tag("state", state.name())
+                .tag("role", role.name())
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private Stream<Booking> findAllBookingsFromUser(Long userId, RequestState state, Role role,
+                                                    BookingCursor cursor, Pageable page) {
+        LocalDateTime now = LocalDateTime.now();
         if (role == Role.USER) {
-            switch (state) {
-                case ALL -> bookingDtoList = bookingMapper.toBookingDtoList(bookingDbStorage
-                        .findByBookerIdOrderByStart(userId));
-                case CURRENT -> bookingDtoList = bookingMapper.toBookingDtoList(bookingDbStorage
-                        .findByBookerIdAndStartBeforeTimeAfterEnd(userId, LocalDateTime.now()));
-                case PAST -> bookingDtoList = bookingMapper.toBookingDtoList(bookingDbStorage
-                        .findByBookerIdAndTimeAfterEnd(userId, LocalDateTime.now()));
-                case FUTURE -> bookingDtoList = bookingMapper.toBookingDtoList(bookingDbStorage
-                        .findByBookerIdAndStartBeforeTime(userId, LocalDateTime.now()));
-                case WAITING -> bookingDtoList = bookingMapper.toBookingDtoList(bookingDbStorage
-                        .findByBookerIdAndStatusOrderByStart(userId, Status.WAITING));
-                case REJECTED -> bookingDtoList = bookingMapper.toBookingDtoList(bookingDbStorage
-                        .findByBookerIdAndStatusOrderByStart(userId, Status.REJECTED));
-            }
+            return switch (state) {
+                case ALL -> bookingDbStorage
+                        .findByBookerIdOrderByStart(userId, cursor.start(), cursor.id(), page);
+                case CURRENT -> bookingDbStorage
+                        .findByBookerIdAndStartBeforeTimeAfterEnd(userId, now, cursor.start(), cursor.id(), page);
+                case PAST -> bookingDbStorage
+                        .findByBookerIdAndTimeAfterEnd(userId, now, cursor.start(), cursor.id(), page)
+                        .map(bookingMapper::toBooking);
+                case FUTURE -> bookingDbStorage
+                        .findByBookerIdAndStartBeforeTime(userId, now, cursor.start(), cursor.id(), page);
+                case WAITING -> bookingDbStorage
+                        .findByBookerIdAndStatusOrderByStart(userId, Status.WAITING, cursor.start(), cursor.id(), page);
+                case REJECTED -> bookingDbStorage
+                        .findByBookerIdAndStatusOrderByStart(userId, Status.REJECTED, cursor.start(), cursor.id(), page);
+                case EXPIRED -> bookingDbStorage
+                        .findByBookerIdAndStatusOrderByStart(userId, Status.EXPIRED, cursor.start(), cursor.id(), page);
+            };
         } else if (role == Role.OWNER) {
-            switch (state) {
-                case ALL -> bookingDtoList = bookingMapper.toBookingDtoList(bookingDbStorage
-                        .findByItemOwnerIdOrderByStart(userId));
-                case CURRENT -> bookingDtoList = bookingMapper.toBookingDtoList(bookingDbStorage
-                        .findByOwnerIdAndStartBeforeTimeAfterEnd(userId, LocalDateTime.now()));
-                case PAST -> bookingDtoList = bookingMapper.toBookingDtoList(bookingDbStorage
-                        .findByOwnerIdAndTimeAfterEnd(userId, LocalDateTime.now()));
-                case FUTURE -> bookingDtoList = bookingMapper.toBookingDtoList(bookingDbStorage
-                        .findByOwnerIdAndStartBeforeTime(userId, LocalDateTime.now()));
-                case WAITING -> bookingDtoList = bookingMapper.toBookingDtoList(bookingDbStorage
-                        .findByItemOwnerIdAndStatusOrderByStart(userId, Status.WAITING));
-                case REJECTED -> bookingDtoList = bookingMapper.toBookingDtoList(bookingDbStorage
-                        .findByItemOwnerIdAndStatusOrderByStart(userId, Status.REJECTED));
-            }
+            return switch (state) {
+                case ALL -> bookingDbStorage
+                        .findByItemOwnerIdOrderByStart(userId, cursor.start(), cursor.id(), page);
+                case CURRENT -> bookingDbStorage
+                        .findByOwnerIdAndStartBeforeTimeAfterEnd(userId, now, cursor.start(), cursor.id(), page);
+                case PAST -> bookingDbStorage
+                        .findByOwnerIdAndTimeAfterEnd(userId, now, cursor.start(), cursor.id(), page)
+                        .map(bookingMapper::toBooking);
+                case FUTURE -> bookingDbStorage
+                        .findByOwnerIdAndStartBeforeTime(userId, now, cursor.start(), cursor.id(), page);
+                case WAITING -> bookingDbStorage
+                        .findByItemOwnerIdAndStatusOrderByStart(userId, Status.WAITING, cursor.start(), cursor.id(), page);
+                case REJECTED -> bookingDbStorage
+                        .findByItemOwnerIdAndStatusOrderByStart(userId, Status.REJECTED, cursor.start(), cursor.id(), page);
+                case EXPIRED -> bookingDbStorage
+                        .findByItemOwnerIdAndStatusOrderByStart(userId, Status.EXPIRED, cursor.start(), cursor.id(), page);
+            };
         } else {
             throw new ConflictException("An unknown role was obtained");
         }
-        log.info("All bookings from {} and state {} size: {}", userId, state, bookingDtoList.size());
-        return bookingDtoList;
     }
 }
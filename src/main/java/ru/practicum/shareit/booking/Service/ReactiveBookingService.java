@@ -0,0 +1,42 @@
+package ru.practicum.shareit.booking.Service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.RequestState;
+import ru.practicum.shareit.booking.model.Role;
+import ru.practicum.shareit.config.ReadYourWrites;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+@Service
+@RequiredArgsConstructor
+public class ReactiveBookingService {
+    private final BookingService bookingService;
+
+    public Flux<BookingDto> findAllBookingsFromUser(Long userId, RequestState state, Role role, int pageSize) {
+        boolean primaryRequired = ReadYourWrites.isPrimaryRequired();
+        return Flux.<List<BookingDto>, Optional<BookingCursor>>generate(() -> Optional.of(BookingCursor.FIRST),
+                        (cursor, sink) -> ReadYourWrites.callWith(primaryRequired, () -> {
+                            if (cursor.isEmpty()) {
+                                sink.complete();
+                                return cursor;
+                            }
+                            List<BookingDto> page = bookingService.getAllBookingsFromUser(userId, state, role,
+                                    cursor.get().encode(), 0, pageSize);
+                            if (page.isEmpty()) {
+                                sink.complete();
+                                return Optional.empty();
+                            }
+                            sink.next(page);
+                            return page.size() < pageSize ? Optional.empty() : Optional.of(BookingCursor.of(page.getLast()));
+                        }))
+                .flatMapIterable(Function.identity(), 1)
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+}
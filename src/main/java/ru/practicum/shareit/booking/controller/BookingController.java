@@ -1,25 +1,45 @@
 package ru.practicum.shareit.booking.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import reactor.core.publisher.Flux;
 import ru.practicum.shareit.booking.Service.BookingService;
+import ru.practicum.shareit.booking.Service.ReactiveBookingService;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoRequest;
+import ru.practicum.shareit.booking.dto.OwnerStatsDto;
 import ru.practicum.shareit.booking.mappers.BookingMapper;
 import ru.practicum.shareit.booking.model.RequestState;
 import ru.practicum.shareit.booking.model.Role;
+import ru.practicum.shareit.web.RateLimited;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.YearMonth;
 import java.util.List;
 
 @RestController
 @RequestMapping(path = "/bookings")
 @RequiredArgsConstructor
 public class BookingController {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
     private final BookingService bookingServiceImpl;
+    private final ReactiveBookingService reactiveBookingService;
     private final BookingMapper bookingMapper;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
+    @RateLimited
     public BookingDto addBooking(@RequestHeader("X-Sharer-User-Id") Long userId,
                                  @Valid @RequestBody BookingDtoRequest bookingDtoRequest) {
         return bookingMapper.toBookingDto(bookingServiceImpl.createBooking(userId, bookingDtoRequest));
@@ -38,14 +58,73 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingDto> getAllBookingsFromUser(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                   @RequestParam(value = "state", defaultValue = "ALL") RequestState state) {
-        return bookingServiceImpl.getAllBookingsFromUser(userId, state, Role.USER);
+    public ResponseEntity<List<BookingDto>> getAllBookingsFromUser(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                   @RequestParam(value = "state", defaultValue = "ALL") RequestState state,
+                                                                   @RequestParam(value = "after", required = false) String after,
+                                                                   @RequestParam(value = "from", defaultValue = "0") @PositiveOrZero int from,
+                                                                   @RequestParam(value = "size", defaultValue = "100") @Positive @Max(1000) int size) {
+        return toPage(bookingServiceImpl.getAllBookingsFromUser(userId, state, Role.USER, after, from, size), size);
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> getAllBookingFromOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                   @RequestParam(value = "state", defaultValue = "ALL") RequestState state) {
-        return bookingServiceImpl.getAllBookingsFromUser(userId, state, Role.OWNER);
+    public ResponseEntity<List<BookingDto>> getAllBookingFromOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                   @RequestParam(value = "state", defaultValue = "ALL") RequestState state,
+                                                                   @RequestParam(value = "after", required = false) String after,
+                                                                   @RequestParam(value = "from", defaultValue = "0") @PositiveOrZero int from,
+                                                                   @RequestParam(value = "size", defaultValue = "100") @Positive @Max(1000) int size) {
+        return toPage(bookingServiceImpl.getAllBookingsFromUser(userId, state, Role.OWNER, after, from, size), size);
+    }
+
+    @GetMapping("/owner/stats")
+    public OwnerStatsDto getOwnerStats(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                       @RequestParam(value = "from", required = false) YearMonth from,
+                                       @RequestParam(value = "to", required = false) YearMonth to) {
+        YearMonth end = to == null ? YearMonth.now() : to;
+        return bookingServiceImpl.getOwnerStats(userId, from == null ? end.minusMonths(11) : from, end);
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody streamAllBookingsFromUser(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                           @RequestParam(value = "state", defaultValue = "ALL") RequestState state) {
+        return out -> bookingServiceImpl.streamAllBookingsFromUser(userId, state, Role.USER,
+                bookingDto -> writeLine(out, bookingDto));
+    }
+
+    @GetMapping(value = "/owner/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody streamAllBookingFromOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                           @RequestParam(value = "state", defaultValue = "ALL") RequestState state) {
+        return out -> bookingServiceImpl.streamAllBookingsFromUser(userId, state, Role.OWNER,
+                bookingDto -> writeLine(out, bookingDto));
+    }
+
+    @GetMapping(value = "/reactive", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<BookingDto> publishAllBookingsFromUser(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                       @RequestParam(value = "state", defaultValue = "ALL") RequestState state,
+                                                       @RequestParam(value = "size", defaultValue = "100") @Positive @Max(1000) int size) {
+        return reactiveBookingService.findAllBookingsFromUser(userId, state, Role.USER, size);
+    }
+
+    @GetMapping(value = "/owner/reactive", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<BookingDto> publishAllBookingFromOwner(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                       @RequestParam(value = "state", defaultValue = "ALL") RequestState state,
+                                                       @RequestParam(value = "size", defaultValue = "100") @Positive @Max(1000) int size) {
+        return reactiveBookingService.findAllBookingsFromUser(userId, state, Role.OWNER, size);
+    }
+
+    private ResponseEntity<List<BookingDto>> toPage(List<BookingDto> bookingDtoList, int size) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (bookingDtoList.size() == size) {
+            response.header(NEXT_CURSOR_HEADER, BookingCursor.of(bookingDtoList.getLast()).encode());
+        }
+        return response.body(bookingDtoList);
+    }
+
+    private void writeLine(OutputStream out, BookingDto bookingDto) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(bookingDto));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 }
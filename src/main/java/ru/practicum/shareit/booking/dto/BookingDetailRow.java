@@ -0,0 +1,33 @@
+package ru.practicum.shareit.booking.dto;
+
+import ru.practicum.shareit.booking.model.Status;
+
+import java.time.LocalDateTime;
+
+public interface BookingDetailRow {
+    Long getId();
+
+    LocalDateTime getStart();
+
+    LocalDateTime getFinish();
+
+    Status getStatus();
+
+    Long getVersion();
+
+    Long getItemId();
+
+    String getItemName();
+
+    String getItemDescription();
+
+    Boolean getItemAvailable();
+
+    Long getOwnerId();
+
+    Long getBookerId();
+
+    String getBookerName();
+
+    String getBookerEmail();
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking.dto;
+
+import java.time.LocalDateTime;
+
+public interface ItemInterval {
+    Long getItemId();
+
+    Boolean getAvailable();
+
+    LocalDateTime getStart();
+
+    LocalDateTime getEnd();
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ItemStatsDto {
+    private Long itemId;
+    private String itemName;
+    private long bookings;
+    private long approved;
+    private long waiting;
+    private long rejected;
+    private double bookedDays;
+    private double utilisation;
+    private List<MonthStatsDto> months;
+}
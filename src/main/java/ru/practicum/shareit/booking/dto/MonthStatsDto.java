@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.YearMonth;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MonthStatsDto {
+    private YearMonth month;
+    private long bookings;
+    private long approved;
+    private long waiting;
+    private long rejected;
+    private double bookedDays;
+    private double utilisation;
+}
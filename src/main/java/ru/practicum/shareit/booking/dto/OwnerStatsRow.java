@@ -0,0 +1,21 @@
+package ru.practicum.shareit.booking.dto;
+
+import java.time.LocalDateTime;
+
+public interface OwnerStatsRow {
+    Long getItemId();
+
+    String getItemName();
+
+    LocalDateTime getMonth();
+
+    Long getBookings();
+
+    Long getApproved();
+
+    Long getWaiting();
+
+    Long getRejected();
+
+    Double getBookedDays();
+}
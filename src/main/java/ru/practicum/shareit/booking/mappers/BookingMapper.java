@@ -2,10 +2,13 @@ package ru.practicum.shareit.booking.mappers;
 
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingDetailRow;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.item.mappers.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.mappers.UserMapper;
+import ru.practicum.shareit.user.model.User;
 
 import java.util.List;
 
@@ -26,6 +29,28 @@ public class BookingMapper {
                 .build();
     }
 
+    public Booking toBooking(BookingDetailRow row) {
+        return Booking.builder()
+                .id(row.getId())
+                .start(row.getStart())
+                .end(row.getFinish())
+                .item(Item.builder()
+                        .id(row.getItemId())
+                        .name(row.getItemName())
+                        .description(row.getItemDescription())
+                        .available(row.getItemAvailable())
+                        .owner(User.builder().id(row.getOwnerId()).build())
+                        .build())
+                .booker(User.builder()
+                        .id(row.getBookerId())
+                        .name(row.getBookerName())
+                        .email(row.getBookerEmail())
+                        .build())
+                .status(row.getStatus())
+                .version(row.getVersion())
+                .build();
+    }
+
     public List<BookingDto> toBookingDtoList(List<Booking> bookings) {
         return bookings.stream().map(this::toBookingDto).toList();
     }
@@ -0,0 +1,4 @@
+package ru.practicum.shareit.booking.model;
+
+public record BookingChangedEvent(Long bookingId, Long itemId, Status status) {
+}
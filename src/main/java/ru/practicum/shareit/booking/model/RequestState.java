@@ -6,5 +6,6 @@ public enum RequestState {
     PAST,
     FUTURE,
     WAITING,
-    REJECTED
+    REJECTED,
+    EXPIRED
 }
@@ -1,78 +1,302 @@
 package ru.practicum.shareit.booking.repository;
 
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import ru.practicum.shareit.booking.dto.BookingDetailRow;
+import ru.practicum.shareit.booking.dto.ExpiredBooking;
+import ru.practicum.shareit.booking.dto.ItemInterval;
+import ru.practicum.shareit.booking.dto.ItemStart;
+import ru.practicum.shareit.booking.dto.OwnerStatsRow;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.Status;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 public interface BookingDbStorage extends JpaRepository<Booking, Long> {
-    List<Booking> findByBookerIdOrderByStart(Long bookerId);
+    String FETCH_SIZE = "500";
 
-    List<Booking> findByBookerIdAndStatusOrderByStart(Long bookerId, Status status);
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = FETCH_SIZE))
+    @Query("""
+            select b from Booking b
+            join fetch b.item
+            join fetch b.booker
+            where b.booker.id = ?1
+            and b.start >= ?2 and (b.start > ?2 or b.id > ?3)
+            order by b.start, b.id
+            """)
+    Stream<Booking> findByBookerIdOrderByStart(Long bookerId, LocalDateTime afterStart, Long afterId,
+                                               Pageable pageable);
 
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = FETCH_SIZE))
     @Query("""
             select b from Booking b
+            join fetch b.item
+            join fetch b.booker
             where b.booker.id = ?1
-            and b.start < ?2
-            and b.end >= ?2
-            order by b.start, b.end
+            and b.status = ?2
+            and b.start >= ?3 and (b.start > ?3 or b.id > ?4)
+            order by b.start, b.id
             """)
-    List<Booking> findByBookerIdAndStartBeforeTimeAfterEnd(Long bookerId, LocalDateTime time);
+    Stream<Booking> findByBookerIdAndStatusOrderByStart(Long bookerId, Status status, LocalDateTime afterStart,
+                                                        Long afterId, Pageable pageable);
 
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = FETCH_SIZE))
     @Query("""
             select b from Booking b
+            join fetch b.item
+            join fetch b.booker
             where b.booker.id = ?1
-            and b.end < ?2
-            order by b.start, b.end
+            and b.start < ?2
+            and b.end >= ?2
+            and b.start >= ?3 and (b.start > ?3 or b.id > ?4)
+            order by b.start, b.id
             """)
-    List<Booking> findByBookerIdAndTimeAfterEnd(Long bookerId, LocalDateTime time);
+    Stream<Booking> findByBookerIdAndStartBeforeTimeAfterEnd(Long bookerId, LocalDateTime time,
+                                                             LocalDateTime afterStart, Long afterId,
+                                                             Pageable pageable);
 
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = FETCH_SIZE))
+    @Query(value = """
+            select b.booking_id as id, b.start as start, b.finish as finish, b.status as status, b.version as version,
+                   i.item_id as itemId, i.name as itemName, i.description as itemDescription,
+                   i.available as itemAvailable, i.owner_id as ownerId,
+                   u.user_id as bookerId, u.name as bookerName, u.email as bookerEmail
+            from (select booking_id, start, finish, item_id, booker_id, status, version from bookings
+                  union all
+                  select booking_id, start, finish, item_id, booker_id, status, version from bookings_archive) as b
+            join items i on i.item_id = b.item_id
+            join users u on u.user_id = b.booker_id
+            where b.booker_id = ?1
+            and b.start < ?2
+            and b.finish < ?2
+            and b.start >= ?3 and (b.start > ?3 or b.booking_id > ?4)
+            order by b.start, b.booking_id
+            """, nativeQuery = true)
+    Stream<BookingDetailRow> findByBookerIdAndTimeAfterEnd(Long bookerId, LocalDateTime time,
+                                                           LocalDateTime afterStart, Long afterId, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = FETCH_SIZE))
     @Query("""
             select b from Booking b
+            join fetch b.item
+            join fetch b.booker
             where b.booker.id = ?1
             and b.start >= ?2
-            order by b.start, b.end
+            and b.start >= ?3 and (b.start > ?3 or b.id > ?4)
+            order by b.start, b.id
             """)
-    List<Booking> findByBookerIdAndStartBeforeTime(Long bookerId, LocalDateTime time);
+    Stream<Booking> findByBookerIdAndStartBeforeTime(Long bookerId, LocalDateTime time,
+                                                     LocalDateTime afterStart, Long afterId, Pageable pageable);
 
-    List<Booking> findByItemOwnerIdOrderByStart(Long ownerId);
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = FETCH_SIZE))
+    @Query("""
+            select b from Booking b
+            join fetch b.item i
+            join fetch b.booker
+            where i.owner.id = ?1
+            and b.start >= ?2 and (b.start > ?2 or b.id > ?3)
+            order by b.start, b.id
+            """)
+    Stream<Booking> findByItemOwnerIdOrderByStart(Long ownerId, LocalDateTime afterStart, Long afterId,
+                                                  Pageable pageable);
 
-    List<Booking> findByItemOwnerIdAndStatusOrderByStart(Long ownerId, Status status);
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = FETCH_SIZE))
+    @Query("""
+            select b from Booking b
+            join fetch b.item i
+            join fetch b.booker
+            where i.owner.id = ?1
+            and b.status = ?2
+            and b.start >= ?3 and (b.start > ?3 or b.id > ?4)
+            order by b.start, b.id
+            """)
+    Stream<Booking> findByItemOwnerIdAndStatusOrderByStart(Long ownerId, Status status, LocalDateTime afterStart,
+                                                           Long afterId, Pageable pageable);
 
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = FETCH_SIZE))
     @Query("""
             select b from Booking b
-            left join b.item i
+            join fetch b.item i
+            join fetch b.booker
             where i.owner.id = ?1
             and b.start < ?2
             and b.end >= ?2
-            order by b.start, b.end
+            and b.start >= ?3 and (b.start > ?3 or b.id > ?4)
+            order by b.start, b.id
             """)
-    List<Booking> findByOwnerIdAndStartBeforeTimeAfterEnd(Long ownerId, LocalDateTime time);
+    Stream<Booking> findByOwnerIdAndStartBeforeTimeAfterEnd(Long ownerId, LocalDateTime time,
+                                                            LocalDateTime afterStart, Long afterId,
+                                                            Pageable pageable);
 
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = FETCH_SIZE))
+    @Query(value = """
+            select b.booking_id as id, b.start as start, b.finish as finish, b.status as status, b.version as version,
+                   i.item_id as itemId, i.name as itemName, i.description as itemDescription,
+                   i.available as itemAvailable, i.owner_id as ownerId,
+                   u.user_id as bookerId, u.name as bookerName, u.email as bookerEmail
+            from (select booking_id, start, finish, item_id, booker_id, status, version from bookings
+                  union all
+                  select booking_id, start, finish, item_id, booker_id, status, version from bookings_archive) as b
+            join items i on i.item_id = b.item_id
+            join users u on u.user_id = b.booker_id
+            where i.owner_id = ?1
+            and b.start < ?2
+            and b.finish < ?2
+            and b.start >= ?3 and (b.start > ?3 or b.booking_id > ?4)
+            order by b.start, b.booking_id
+            """, nativeQuery = true)
+    Stream<BookingDetailRow> findByOwnerIdAndTimeAfterEnd(Long ownerId, LocalDateTime time,
+                                                          LocalDateTime afterStart, Long afterId, Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = FETCH_SIZE))
     @Query("""
             select b from Booking b
-            left join b.item i
+            join fetch b.item i
+            join fetch b.booker
             where i.owner.id = ?1
-            and b.end < ?2
-            order by b.start, b.end
+            and b.start >= ?2
+            and b.start >= ?3 and (b.start > ?3 or b.id > ?4)
+            order by b.start, b.id
             """)
-    List<Booking> findByOwnerIdAndTimeAfterEnd(Long ownerId, LocalDateTime time);
+    Stream<Booking> findByOwnerIdAndStartBeforeTime(Long ownerId, LocalDateTime time,
+                                                    LocalDateTime afterStart, Long afterId, Pageable pageable);
+
+    @Override
+    @EntityGraph(attributePaths = {"item", "booker"})
+    Optional<Booking> findById(Long id);
+
+    @Query(value = """
+            select booking_id, start, finish, item_id, booker_id, status, version
+            from (select b.*, row_number() over (partition by b.item_id order by b.start desc, b.booking_id desc) as rn
+                  from bookings b
+                  where b.item_id in ?1
+                  and b.start < ?2) as last_bookings
+            where rn = 1
+            union all
+            select booking_id, start, finish, item_id, booker_id, status, version
+            from (select b.*, row_number() over (partition by b.item_id order by b.start, b.booking_id) as rn
+                  from bookings b
+                  where b.item_id in ?1
+                  and b.start > ?3) as next_bookings
+            where rn = 1
+            """, nativeQuery = true)
+    List<Booking> findLastAndNextByItemIdIn(Collection<Long> itemIds, LocalDateTime lastBefore,
+                                            LocalDateTime nextAfter);
 
     @Query("""
-            select b from Booking b
-            left join b.item i
-            where i.owner.id = ?1
+            select b.item.id as itemId, min(b.start) as start from Booking b
+            where b.item.id in ?1
             and b.start >= ?2
-            order by b.start, b.end
+            and b.start <= ?3
+            group by b.item.id
             """)
-    List<Booking> findByOwnerIdAndStartBeforeTime(Long ownerId, LocalDateTime time);
+    List<ItemStart> findFirstStartByItemIdIn(Collection<Long> itemIds, LocalDateTime from, LocalDateTime to);
+
+    @Query("""
+            select i.id as itemId, i.available as available, b.start as start, b.end as end from Item i
+            left join Booking b on b.item.id = i.id
+            and b.status in ?2
+            and b.end > ?3
+            where i.id in ?1
+            order by i.id, b.start
+            """)
+    List<ItemInterval> findIntervalsByItemIdIn(Collection<Long> itemIds, Collection<Status> statuses,
+                                               LocalDateTime after);
+
+    @Query(value = "select 1 from (select pg_advisory_xact_lock(?1)) as item_lock", nativeQuery = true)
+    int lockItem(Long itemId);
+
+    @Query(value = """
+            select count(*) from (select pg_advisory_xact_lock(i.item_id) from items i
+                                  where i.item_id in ?1
+                                  order by i.item_id) as item_locks
+            """, nativeQuery = true)
+    long lockItems(Collection<Long> itemIds);
+
+    boolean existsByItemIdAndStatusInAndStartBeforeAndEndAfter(Long itemId, Collection<Status> statuses,
+                                                               LocalDateTime end, LocalDateTime start);
+
+    @Query(value = """
+            select exists(select 1 from bookings b
+                          where b.item_id = ?1 and b.booker_id = ?2 and b.start < ?3 and b.finish < ?3)
+                or exists(select 1 from bookings_archive a
+                          where a.item_id = ?1 and a.booker_id = ?2 and a.finish < ?3)
+            """, nativeQuery = true)
+    boolean existsFinishedByItemIdAndBookerId(Long itemId, Long bookerId, LocalDateTime timeNow);
+
+    @Modifying
+    @Query(value = """
+            with moved as (
+                delete from bookings b
+                where b.start < ?1
+                and b.booking_id in (select f.booking_id from bookings f
+                                     where f.start < ?1
+                                     and f.finish < ?1
+                                     and exists(select 1 from bookings l
+                                                where l.item_id = f.item_id
+                                                and l.start < ?1
+                                                and (l.start > f.start or (l.start = f.start and l.booking_id > f.booking_id)))
+                                     limit ?2)
+                returning b.booking_id, b.start, b.finish, b.item_id, b.booker_id, b.status, b.version)
+            insert into bookings_archive (booking_id, start, finish, item_id, booker_id, status, version)
+            select booking_id, start, finish, item_id, booker_id, status, version from moved
+            """, nativeQuery = true)
+    int archiveFinishedBefore(LocalDateTime horizon, int limit);
 
-    Booking findByItemIdAndStartBeforeOrderByStart(Long itemId, LocalDateTime timeNow);
+    @Query(value = """
+            with stale as (
+                select w.booking_id, w.start from bookings w
+                where w.status = 'WAITING'
+                and w.start < ?1
+                order by w.start, w.booking_id
+                limit ?2
+                for update skip locked)
+            update bookings b
+            set status = 'EXPIRED', version = b.version + 1
+            from stale s
+            where b.booking_id = s.booking_id
+            and b.start = s.start
+            returning b.booking_id as bookingId, b.item_id as itemId
+            """, nativeQuery = true)
+    List<ExpiredBooking> expireWaitingStartedBefore(LocalDateTime time, int limit);
 
-    Booking findByItemIdAndStartAfterOrderByStart(Long itemId, LocalDateTime timeNow);
+    @Query(value = """
+            select b.item_id as itemId, i.name as itemName, m.month as month,
+                   count(*) filter (where b.start >= m.month) as bookings,
+                   count(*) filter (where b.start >= m.month and b.status = 'APPROVED') as approved,
+                   count(*) filter (where b.start >= m.month and b.status = 'WAITING') as waiting,
+                   count(*) filter (where b.start >= m.month and b.status = 'REJECTED') as rejected,
+                   cast(coalesce(sum(extract(epoch from least(b.finish, m.month + interval '1 month')
+                                                     - greatest(b.start, m.month)))
+                                     filter (where b.status = 'APPROVED'), 0) / 86400 as double precision) as bookedDays
+            from items i
+            join (select item_id, start, finish, status from bookings
+                  union all
+                  select item_id, start, finish, status from bookings_archive) as b on b.item_id = i.item_id
+            cross join lateral generate_series(date_trunc('month', b.start), b.finish, interval '1 month') as m(month)
+            where i.owner_id = ?1
+            and b.start < ?3
+            and b.finish > ?2
+            and m.month >= ?2
+            and m.month < ?3
+            and m.month < b.finish
+            group by b.item_id, i.name, m.month
+            order by b.item_id, m.month
+            """, nativeQuery = true)
+    List<OwnerStatsRow> findOwnerStats(Long ownerId, LocalDateTime from, LocalDateTime to);
 
-    List<Booking> findByItemIdAndBookerIdAndEndBefore(Long itemId, Long bookerId, LocalDateTime timeNow);
+    @Query(value = "select create_booking_partitions(?1, ?2)", nativeQuery = true)
+    int createPartitions(LocalDate fromMonth, LocalDate toMonth);
 }
@@ -0,0 +1,59 @@
+package ru.practicum.shareit.bulk.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.bulk.dto.BulkResult;
+import ru.practicum.shareit.bulk.service.BulkService;
+
+import java.io.InputStream;
+
+@RestController
+@RequestMapping(path = "/bulk")
+@RequiredArgsConstructor
+public class BulkController {
+    private static final String TEXT_CSV_VALUE = "text/csv";
+    private final BulkService bulkService;
+
+    @PostMapping(value = "/users", consumes = {MediaType.APPLICATION_NDJSON_VALUE, TEXT_CSV_VALUE})
+    public BulkResult importUsers(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                  @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType, InputStream in) {
+        return bulkService.importUsers(userId, in, isCsv(contentType));
+    }
+
+    @PostMapping(value = "/items", consumes = {MediaType.APPLICATION_NDJSON_VALUE, TEXT_CSV_VALUE})
+    public BulkResult importItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                  @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType, InputStream in) {
+        return bulkService.importItems(userId, in, isCsv(contentType));
+    }
+
+    @PostMapping(value = "/bookings", consumes = {MediaType.APPLICATION_NDJSON_VALUE, TEXT_CSV_VALUE})
+    public BulkResult importBookings(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                     @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType, InputStream in) {
+        return bulkService.importBookings(userId, in, isCsv(contentType));
+    }
+
+    @GetMapping(value = "/users", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody exportUsers(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        bulkService.checkAdmin(userId);
+        return bulkService::exportUsers;
+    }
+
+    @GetMapping(value = "/items", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody exportItems(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        bulkService.checkAdmin(userId);
+        return bulkService::exportItems;
+    }
+
+    @GetMapping(value = "/bookings", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody exportBookings(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        bulkService.checkAdmin(userId);
+        return bulkService::exportBookings;
+    }
+
+    private boolean isCsv(MediaType contentType) {
+        return MediaType.parseMediaType(TEXT_CSV_VALUE).isCompatibleWith(contentType);
+    }
+}
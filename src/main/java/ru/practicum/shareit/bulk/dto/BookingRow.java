@@ -0,0 +1,35 @@
+package ru.practicum.shareit.bulk.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.booking.model.Status;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingRow {
+    private Long id;
+    @NotNull
+    private Long itemId;
+    @NotNull
+    private Long bookerId;
+    @NotNull
+    private LocalDateTime start;
+    @NotNull
+    private LocalDateTime end;
+    private Status status;
+
+    @JsonIgnore
+    @AssertTrue(message = "end must be after start")
+    public boolean isEndAfterStart() {
+        return start == null || end == null || end.isAfter(start);
+    }
+}
@@ -0,0 +1,24 @@
+package ru.practicum.shareit.bulk.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class BulkResult {
+    public static final int MAX_ERRORS = 1000;
+    private long imported;
+    private long failed;
+    private List<RowError> errors = new ArrayList<>();
+
+    public void addError(long line, String message) {
+        failed++;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(new RowError(line, message));
+        }
+    }
+
+    public record RowError(long line, String message) {
+    }
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.bulk.dto;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserRow {
+    private Long id;
+    @NotBlank
+    private String name;
+    @NotBlank
+    @Email
+    private String email;
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.bulk.service;
+
+import ru.practicum.shareit.bulk.dto.BulkResult;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+public interface BulkService {
+    void checkAdmin(Long userId);
+
+    BulkResult importUsers(Long userId, InputStream in, boolean csv);
+
+    BulkResult importItems(Long userId, InputStream in, boolean csv);
+
+    BulkResult importBookings(Long userId, InputStream in, boolean csv);
+
+    void exportUsers(OutputStream out);
+
+    void exportItems(OutputStream out);
+
+    void exportBookings(OutputStream out);
+}
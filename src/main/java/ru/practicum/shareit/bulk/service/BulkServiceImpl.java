@@ -0,0 +1,369 @@
+package ru.practicum.shareit.bulk.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.BookingChangedEvent;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.bulk.dto.BookingRow;
+import ru.practicum.shareit.bulk.dto.BulkResult;
+import ru.practicum.shareit.bulk.dto.ItemRow;
+import ru.practicum.shareit.bulk.dto.UserRow;
+import ru.practicum.shareit.exception.BadRequest;
+import ru.practicum.shareit.exception.ForbiddenException;
+import ru.practicum.shareit.item.repository.ItemBookingSummaryDbStorage;
+import ru.practicum.shareit.item.service.ItemAvailabilityService;
+import ru.practicum.shareit.outbox.service.OutboxService;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Timed(value = "shareit.service", histogram = true)
+public class BulkServiceImpl implements BulkService {
+    private static final String INSERT_USER = "insert into users (user_id, name, email) values (?, ?, ?)";
+    private static final String INSERT_ITEM = "insert into items (item_id, name, description, available, owner_id) values (?, ?, ?, ?, ?)";
+    private static final String INSERT_BOOKING = "insert into bookings (booking_id, start, finish, item_id, booker_id, status) values (?, ?, ?, ?, ?, ?)";
+    private static final String NEXT_IDS = "select nextval(?::regclass) from generate_series(1, ?)";
+    private static final int ID_INCREMENT = 50;
+    private static final List<Status> ACTIVE_STATUSES = List.of(Status.WAITING, Status.APPROVED);
+    private static final String LOCK_ITEM = "select 1 from (select pg_advisory_xact_lock(?)) as item_lock";
+    private static final String BOOKING_ROW = "(cast(? as int), cast(? as bigint), cast(? as timestamp), cast(? as timestamp))";
+    private static final String FIND_REJECTED_BOOKINGS = """
+            select r.idx, i.available from (values %s) as r(idx, item_id, start, finish)
+            join items i on i.item_id = r.item_id
+            where not i.available
+            or exists (select 1 from bookings b where b.item_id = r.item_id and b.status in ('WAITING', 'APPROVED')
+                       and b.start < r.finish and b.finish > r.start)
+            order by r.idx
+            """;
+    private static final String SELECT_USERS = "select user_id, name, email from users where user_id > ? order by user_id limit ?";
+    private static final String SELECT_ITEMS = "select item_id, name, description, available, owner_id from items where item_id > ? order by item_id limit ?";
+    private static final String SELECT_BOOKINGS = """
+            select booking_id, start, finish, item_id, booker_id, status from (
+                select booking_id, start, finish, item_id, booker_id, status from bookings
+                union all
+                select booking_id, start, finish, item_id, booker_id, status from bookings_archive
+            ) as b where booking_id > ? order by booking_id limit ?
+            """;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ItemBookingSummaryDbStorage itemBookingSummaryDbStorage;
+    private final ItemAvailabilityService itemAvailabilityService;
+    private final OutboxService outboxService;
+    private final UserService userService;
+    private final CsvMapper csvMapper = CsvMapper.builder().findAndAddModules().build();
+    @Value("${shareit.bulk.batch-size:1000}")
+    private int batchSize;
+    @Value("${shareit.bulk.admin-ids:}")
+    private Set<Long> adminIds;
+
+    @Override
+    public void checkAdmin(Long userId) {
+        userService.findUserById(userId);
+        if (!adminIds.contains(userId)) {
+            log.error("User {} is not a bulk administrator", userId);
+            throw new ForbiddenException("Only administrators can use this bulk operation");
+        }
+    }
+
+    @Override
+    public BulkResult importUsers(Long userId, InputStream in, boolean csv) {
+        log.info("Importing users by {}", userId);
+        checkAdmin(userId);
+        BulkResult result = importRows(in, csv, UserRow.class, INSERT_USER, row -> null,
+                row -> new Object[]{row.getId(), row.getName(), row.getEmail()},
+                batch -> assignIds(batch, "users_seq", UserRow::setId), batch -> {
+                }, batch -> {
+                });
+        log.info("Users imported: {}, failed: {}", result.getImported(), result.getFailed());
+        return result;
+    }
+
+    @Override
+    public BulkResult importItems(Long userId, InputStream in, boolean csv) {
+        log.info("Importing items by {}", userId);
+        userService.findUserById(userId);
+        boolean admin = adminIds.contains(userId);
+        BulkResult result = importRows(in, csv, ItemRow.class, INSERT_ITEM,
+                row -> admin || userId.equals(row.getOwnerId()) ? null : "ownerId must be the importing user",
+                row -> new Object[]{row.getId(), row.getName(), row.getDescription(), row.getAvailable(),
+                        row.getOwnerId()},
+                batch -> assignIds(batch, "items_seq", ItemRow::setId), batch -> {
+                }, batch -> itemAvailabilityService.invalidateMissing());
+        log.info("Items imported: {}, failed: {}", result.getImported(), result.getFailed());
+        return result;
+    }
+
+    @Override
+    public BulkResult importBookings(Long userId, InputStream in, boolean csv) {
+        log.info("Importing bookings by {}", userId);
+        userService.findUserById(userId);
+        boolean admin = adminIds.contains(userId);
+        BulkResult result = importRows(in, csv, BookingRow.class, INSERT_BOOKING,
+                row -> admin || userId.equals(row.getBookerId()) ? null : "bookerId must be the importing user",
+                row -> new Object[]{row.getId(), Timestamp.valueOf(row.getStart()), Timestamp.valueOf(row.getEnd()),
+                        row.getItemId(), row.getBookerId(), row.getStatus().name()},
+                batch -> {
+                    assignIds(batch, "bookings_seq", BookingRow::setId);
+                    batch.forEach(row -> row.setStatus(admin && row.getStatus() != null ? row.getStatus()
+                            : Status.WAITING));
+                },
+                this::checkBookings,
+                batch -> {
+                    Set<Long> itemIds = batch.stream()
+                            .map(BookingRow::getItemId)
+                            .collect(Collectors.toSet());
+                    itemBookingSummaryDbStorage.expireAll(itemIds, LocalDateTime.now());
+                    itemAvailabilityService.invalidate(itemIds);
+                    outboxService.recordAll(batch.stream()
+                            .map(row -> new BookingChangedEvent(row.getId(), row.getItemId(), row.getStatus()))
+                            .toList());
+                });
+        log.info("Bookings imported: {}, failed: {}", result.getImported(), result.getFailed());
+        return result;
+    }
+
+    @Override
+    public void exportUsers(OutputStream out) {
+        log.info("Exporting users");
+        exportRows(out, SELECT_USERS, (rs, rowNum) -> UserRow.builder()
+                .id(rs.getLong("user_id"))
+                .name(rs.getString("name"))
+                .email(rs.getString("email"))
+                .build(), UserRow::getId);
+    }
+
+    @Override
+    public void exportItems(OutputStream out) {
+        log.info("Exporting items");
+        exportRows(out, SELECT_ITEMS, (rs, rowNum) -> ItemRow.builder()
+                .id(rs.getLong("item_id"))
+                .ownerId(rs.getLong("owner_id"))
+                .name(rs.getString("name"))
+                .description(rs.getString("description"))
+                .available(rs.getBoolean("available"))
+                .build(), ItemRow::getId);
+    }
+
+    @Override
+    public void exportBookings(OutputStream out) {
+        log.info("Exporting bookings");
+        exportRows(out, SELECT_BOOKINGS, (rs, rowNum) -> BookingRow.builder()
+                .id(rs.getLong("booking_id"))
+                .itemId(rs.getLong("item_id"))
+                .bookerId(rs.getLong("booker_id"))
+                .start(rs.getTimestamp("start").toLocalDateTime())
+                .end(rs.getTimestamp("finish").toLocalDateTime())
+                .status(Status.valueOf(rs.getString("status")))
+                .build(), BookingRow::getId);
+    }
+
+    private <T> BulkResult importRows(InputStream in, boolean csv, Class<T> type, String sql,
+                                      Function<T, String> authorize, Function<T, Object[]> toArgs,
+                                      Consumer<List<T>> beforeBatch, Consumer<List<T>> checkBatch,
+                                      Consumer<List<T>> afterBatch) {
+        BulkResult result = new BulkResult();
+        List<T> batch = new ArrayList<>(batchSize);
+        List<Long> lines = new ArrayList<>(batchSize);
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            ObjectReader rowReader = csv ? csvReader(type, reader.readLine()) : objectMapper.readerFor(type);
+            long line = csv ? 1 : 0;
+            String text;
+            while ((text = reader.readLine()) != null) {
+                line++;
+                if (text.isBlank()) {
+                    continue;
+                }
+                T row;
+                try {
+                    row = rowReader.readValue(text);
+                } catch (JsonProcessingException e) {
+                    result.addError(line, e.getOriginalMessage());
+                    continue;
+                }
+                Set<ConstraintViolation<T>> violations = validator.validate(row);
+                if (!violations.isEmpty()) {
+                    result.addError(line, violations.stream()
+                            .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                            .sorted()
+                            .collect(Collectors.joining(", ")));
+                    continue;
+                }
+                String denied = authorize.apply(row);
+                if (denied != null) {
+                    result.addError(line, denied);
+                    continue;
+                }
+                batch.add(row);
+                lines.add(line);
+                if (batch.size() == batchSize) {
+                    flush(sql, batch, lines, toArgs, beforeBatch, checkBatch, afterBatch, result);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (!batch.isEmpty()) {
+            flush(sql, batch, lines, toArgs, beforeBatch, checkBatch, afterBatch, result);
+        }
+        return result;
+    }
+
+    private ObjectReader csvReader(Class<?> type, String header) {
+        if (header == null || header.isBlank()) {
+            throw new BadRequest("CSV input must start with a header line");
+        }
+        CsvSchema.Builder schema = CsvSchema.builder();
+        for (String column : header.split(",")) {
+            schema.addColumn(column.trim());
+        }
+        return csvMapper.readerFor(type).with(schema.build());
+    }
+
+    private <T> void flush(String sql, List<T> batch, List<Long> lines, Function<T, Object[]> toArgs,
+                           Consumer<List<T>> beforeBatch, Consumer<List<T>> checkBatch, Consumer<List<T>> afterBatch,
+                           BulkResult result) {
+        beforeBatch.accept(batch);
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                checkBatch.accept(batch);
+                jdbcTemplate.batchUpdate(sql, batch.stream().map(toArgs).toList());
+                afterBatch.accept(batch);
+            });
+            result.setImported(result.getImported() + batch.size());
+        } catch (DataAccessException e) {
+            log.warn("Batch insert failed, retrying {} rows one by one: {}", batch.size(), e.getMessage());
+            for (int i = 0; i < batch.size(); i++) {
+                T row = batch.get(i);
+                try {
+                    transactionTemplate.executeWithoutResult(status -> {
+                        checkBatch.accept(List.of(row));
+                        jdbcTemplate.update(sql, toArgs.apply(row));
+                        afterBatch.accept(List.of(row));
+                    });
+                    result.setImported(result.getImported() + 1);
+                } catch (DataAccessException rowError) {
+                    result.addError(lines.get(i), rowError.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+        batch.clear();
+        lines.clear();
+    }
+
+    // The same guarantees as createBooking: the exclusion constraint only holds within a partition, so active bookings
+    // are checked against each other and the table under the item locks. A rejected batch is retried row by row,
+    // which reports the offending rows.
+    private void checkBookings(List<BookingRow> batch) {
+        List<BookingRow> active = batch.stream()
+                .filter(row -> ACTIVE_STATUSES.contains(row.getStatus()))
+                .toList();
+        if (active.isEmpty()) {
+            return;
+        }
+        active.stream()
+                .map(BookingRow::getItemId)
+                .distinct()
+                .sorted()
+                .forEach(itemId -> jdbcTemplate.queryForObject(LOCK_ITEM, Integer.class, itemId));
+        List<Object> args = new ArrayList<>(active.size() * 4);
+        for (int i = 0; i < active.size(); i++) {
+            BookingRow row = active.get(i);
+            args.addAll(List.of(i, row.getItemId(), Timestamp.valueOf(row.getStart()),
+                    Timestamp.valueOf(row.getEnd())));
+        }
+        List<String> rejected = jdbcTemplate.query(
+                FIND_REJECTED_BOOKINGS.formatted(String.join(", ", Collections.nCopies(active.size(), BOOKING_ROW))),
+                (rs, rowNum) -> (rs.getBoolean("available") ? "The item is already booked for this time"
+                        : "The item is not available for booking")
+                        + ": itemId=" + active.get(rs.getInt("idx")).getItemId(),
+                args.toArray());
+        if (!rejected.isEmpty()) {
+            throw new DataIntegrityViolationException(rejected.getFirst());
+        }
+        Map<Long, List<BookingRow>> byItem = active.stream()
+                .collect(Collectors.groupingBy(BookingRow::getItemId));
+        for (List<BookingRow> rows : byItem.values()) {
+            rows.sort(Comparator.comparing(BookingRow::getStart));
+            LocalDateTime bookedUntil = LocalDateTime.MIN;
+            for (BookingRow row : rows) {
+                if (row.getStart().isBefore(bookedUntil)) {
+                    throw new DataIntegrityViolationException("The item is already booked for this time: itemId="
+                            + row.getItemId());
+                }
+                if (row.getEnd().isAfter(bookedUntil)) {
+                    bookedUntil = row.getEnd();
+                }
+            }
+        }
+    }
+
+    // The sequences step by 50 for Hibernate's pooled optimizer, so each nextval reserves a block of 50 ids;
+    // relying on the column default would burn a whole block per row.
+    private <T> void assignIds(List<T> batch, String sequence, BiConsumer<T, Long> setId) {
+        int blocks = (batch.size() + ID_INCREMENT - 1) / ID_INCREMENT;
+        List<Long> highIds = jdbcTemplate.queryForList(NEXT_IDS, Long.class, sequence, blocks);
+        for (int i = 0; i < batch.size(); i++) {
+            long highId = highIds.get(i / ID_INCREMENT);
+            setId.accept(batch.get(i), highId - ID_INCREMENT + 1 + i % ID_INCREMENT);
+        }
+    }
+
+    private <T> void exportRows(OutputStream out, String sql, RowMapper<T> rowMapper, ToLongFunction<T> id) {
+        long lastId = 0;
+        List<T> chunk;
+        do {
+            chunk = jdbcTemplate.query(sql, rowMapper, lastId, batchSize);
+            try {
+                for (T row : chunk) {
+                    out.write(objectMapper.writeValueAsBytes(row));
+                    out.write('\n');
+                }
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            if (!chunk.isEmpty()) {
+                lastId = id.applyAsLong(chunk.getLast());
+            }
+        } while (chunk.size() == batchSize);
+    }
+}
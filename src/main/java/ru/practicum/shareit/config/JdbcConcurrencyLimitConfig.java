@@ -0,0 +1,55 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+@Configuration
+@ConditionalOnProperty(prefix = "shareit.jdbc.concurrency-limit", name = "enabled", havingValue = "true")
+public class JdbcConcurrencyLimitConfig {
+    public static final int POST_PROCESSOR_ORDER = 0;
+
+    @Bean
+    public static ConcurrencyLimitedDataSourcePostProcessor concurrencyLimitedDataSourcePostProcessor(
+            Environment environment) {
+        JdbcConcurrencyLimitProperties properties = Binder.get(environment)
+                .bindOrCreate("shareit.jdbc.concurrency-limit", JdbcConcurrencyLimitProperties.class);
+        return new ConcurrencyLimitedDataSourcePostProcessor(properties);
+    }
+
+    @Bean
+    public MeterBinder concurrencyLimitedDataSourceMetrics(DataSource dataSource) throws SQLException {
+        ConcurrencyLimitedDataSource limitedDataSource = dataSource.unwrap(ConcurrencyLimitedDataSource.class);
+        return registry -> {
+            Gauge.builder("shareit.jdbc.gate.waiting", limitedDataSource, ConcurrencyLimitedDataSource::getQueueLength)
+                    .register(registry);
+            Gauge.builder("shareit.jdbc.gate.available", limitedDataSource, ConcurrencyLimitedDataSource::getAvailablePermits)
+                    .register(registry);
+        };
+    }
+
+    record ConcurrencyLimitedDataSourcePostProcessor(JdbcConcurrencyLimitProperties properties)
+            implements BeanPostProcessor, Ordered {
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource dataSource && !(bean instanceof ConcurrencyLimitedDataSource)) {
+                return new ConcurrencyLimitedDataSource(dataSource, properties.getPermits(), properties.getTimeout());
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return POST_PROCESSOR_ORDER;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package ru.practicum.shareit.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.jdbc.concurrency-limit")
+public class JdbcConcurrencyLimitProperties {
+    private boolean enabled;
+    private int permits = 10;
+    private Duration timeout = Duration.ofSeconds(30);
+}
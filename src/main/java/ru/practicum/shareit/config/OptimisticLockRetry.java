@@ -0,0 +1,66 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.exception.PreconditionFailedException;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+@Slf4j
+@Component
+public class OptimisticLockRetry {
+    private final TransactionTemplate transactionTemplate;
+    private final Counter retries;
+    private final Counter failures;
+    @Value("${shareit.optimistic-lock.max-attempts:3}")
+    private int maxAttempts;
+    @Value("${shareit.optimistic-lock.backoff:PT0.02S}")
+    private Duration backoff;
+
+    public OptimisticLockRetry(TransactionTemplate transactionTemplate, MeterRegistry meterRegistry) {
+        this.transactionTemplate = transactionTemplate;
+        this.retries = meterRegistry.counter("shareit.optimistic_lock.retries");
+        this.failures = meterRegistry.counter("shareit.optimistic_lock.failures");
+    }
+
+    public <T> T execute(boolean retryable, Supplier<T> action) {
+        int attempt = 1;
+        while (true) {
+            try {
+                return transactionTemplate.execute(status -> action.get());
+            } catch (ObjectOptimisticLockingFailureException e) {
+                if (!retryable) {
+                    failures.increment();
+                    throw new PreconditionFailedException("The resource was modified concurrently");
+                }
+                if (attempt >= maxAttempts) {
+                    failures.increment();
+                    log.error("Optimistic lock retries exhausted after {} attempts", attempt, e);
+                    throw new ConflictException("The resource was modified concurrently, please retry");
+                }
+                retries.increment();
+                log.warn("Optimistic lock conflict, attempt {} of {}", attempt, maxAttempts);
+                sleep(attempt);
+                attempt++;
+            }
+        }
+    }
+
+    private void sleep(int attempt) {
+        long millis = backoff.toMillis() * attempt;
+        try {
+            Thread.sleep(millis + ThreadLocalRandom.current().nextLong(millis + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException("Interrupted while retrying a concurrent update");
+        }
+    }
+}
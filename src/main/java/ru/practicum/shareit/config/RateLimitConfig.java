@@ -0,0 +1,39 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import ru.practicum.shareit.web.LoadShedder;
+import ru.practicum.shareit.web.RateLimitInterceptor;
+import ru.practicum.shareit.web.TokenBucketRateLimiter;
+
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+@ConditionalOnProperty(prefix = "shareit.rate-limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfig implements WebMvcConfigurer {
+    private final RateLimitInterceptor rateLimitInterceptor;
+
+    public RateLimitConfig(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        TokenBucketRateLimiter rateLimiter = new TokenBucketRateLimiter(properties.getCapacity(),
+                properties.getRefillPerSecond(), properties.getMaxKeys(), properties.getIdleTimeout());
+        RateLimitProperties.Shedding shedding = properties.getShedding();
+        LoadShedder loadShedder = null;
+        if (shedding.isEnabled()) {
+            loadShedder = new LoadShedder(meterRegistry, shedding.getLatencyThreshold(),
+                    shedding.getPendingConnectionsThreshold());
+            Gauge.builder("shareit.requests.overload", loadShedder, LoadShedder::getOverload).register(meterRegistry);
+        }
+        Gauge.builder("shareit.ratelimit.keys", rateLimiter, TokenBucketRateLimiter::size).register(meterRegistry);
+        this.rateLimitInterceptor = new RateLimitInterceptor(rateLimiter, loadShedder, shedding.getRetryAfter(),
+                meterRegistry);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(rateLimitInterceptor);
+    }
+}
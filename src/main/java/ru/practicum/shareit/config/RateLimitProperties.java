@@ -0,0 +1,25 @@
+package ru.practicum.shareit.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "shareit.rate-limit")
+public class RateLimitProperties {
+    private boolean enabled = true;
+    private int capacity = 20;
+    private double refillPerSecond = 5;
+    private long maxKeys = 100_000;
+    private Duration idleTimeout = Duration.ofMinutes(10);
+    private Shedding shedding = new Shedding();
+
+    @Data
+    public static class Shedding {
+        private boolean enabled;
+        private Duration latencyThreshold = Duration.ofMillis(500);
+        private int pendingConnectionsThreshold = 5;
+        private Duration retryAfter = Duration.ofSeconds(1);
+    }
+}
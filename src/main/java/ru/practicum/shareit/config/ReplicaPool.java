@@ -0,0 +1,103 @@
+package ru.practicum.shareit.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Slf4j
+public class ReplicaPool implements AutoCloseable {
+    private static final int VALIDATION_TIMEOUT_SECONDS = 1;
+    private final List<Node> nodes;
+    private final AtomicInteger next = new AtomicInteger();
+    private final ScheduledExecutorService healthChecker;
+
+    public ReplicaPool(ReplicaRoutingProperties properties) {
+        this.nodes = properties.getNodes().stream()
+                .map(replica -> new Node(replica.getUrl(), dataSource(replica, properties.getPoolSize())))
+                .toList();
+        this.healthChecker = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("replica-health")
+                .daemon()
+                .factory());
+        long interval = properties.getHealthCheckInterval().toMillis();
+        healthChecker.scheduleWithFixedDelay(this::checkHealth, 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public DataSource next() {
+        int size = nodes.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            Node node = nodes.get((start + i) % size);
+            if (node.healthy.get()) {
+                return node.dataSource;
+            }
+        }
+        return null;
+    }
+
+    public void markUnhealthy(DataSource dataSource) {
+        nodes.stream()
+                .filter(node -> node.dataSource == dataSource)
+                .forEach(node -> {
+                    if (node.healthy.compareAndSet(true, false)) {
+                        log.warn("Replica {} marked unhealthy", node.url);
+                    }
+                });
+    }
+
+    public long getHealthyCount() {
+        return nodes.stream().filter(node -> node.healthy.get()).count();
+    }
+
+    public int getSize() {
+        return nodes.size();
+    }
+
+    void checkHealth() {
+        for (Node node : nodes) {
+            boolean healthy;
+            try (Connection connection = node.dataSource.getConnection()) {
+                healthy = connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+            } catch (SQLException | RuntimeException e) {
+                healthy = false;
+            }
+            if (node.healthy.getAndSet(healthy) != healthy) {
+                log.info("Replica {} is now {}", node.url, healthy ? "healthy" : "unhealthy");
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        healthChecker.shutdownNow();
+        nodes.forEach(node -> node.dataSource.close());
+    }
+
+    private static HikariDataSource dataSource(ReplicaRoutingProperties.Replica replica, int poolSize) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("replica-" + replica.getUrl());
+        config.setJdbcUrl(replica.getUrl());
+        config.setUsername(replica.getUsername());
+        config.setPassword(replica.getPassword());
+        config.setMaximumPoolSize(poolSize);
+        config.setReadOnly(true);
+        config.setInitializationFailTimeout(-1);
+        return new HikariDataSource(config);
+    }
+
+    private record Node(String url, HikariDataSource dataSource, AtomicBoolean healthy) {
+        Node(String url, HikariDataSource dataSource) {
+            this(url, dataSource, new AtomicBoolean(false));
+        }
+    }
+}
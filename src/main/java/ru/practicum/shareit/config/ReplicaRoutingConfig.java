@@ -0,0 +1,89 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+
+@Configuration
+@EnableConfigurationProperties(ReplicaRoutingProperties.class)
+@ConditionalOnProperty(prefix = "shareit.datasource.replicas", name = "enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+    // Runs after the JDBC concurrency gate, so the gate sits inside the lazy proxy around the primary pool only:
+    // writes and primary reads pass the gate once they touch the database, replica reads use their own pools.
+    // Both bean methods return the Ordered post-processor types so the order is known before instantiation.
+    public static final int POST_PROCESSOR_ORDER = JdbcConcurrencyLimitConfig.POST_PROCESSOR_ORDER + 10;
+
+    @Bean
+    public static ReplicaRoutingPostProcessor replicaRoutingDataSourcePostProcessor(
+            ObjectProvider<ReplicaPool> replicaPool, ObjectProvider<MeterRegistry> meterRegistry) {
+        return new ReplicaRoutingPostProcessor(replicaPool, meterRegistry);
+    }
+
+    @Bean
+    public ReplicaPool replicaPool(ReplicaRoutingProperties properties) {
+        return new ReplicaPool(properties);
+    }
+
+    @Bean
+    public ReadYourWrites readYourWrites(ReplicaRoutingProperties properties) {
+        return new ReadYourWrites(properties.getReadYourWritesWindow());
+    }
+
+    @Bean
+    public TaskDecorator readYourWritesTaskDecorator() {
+        return ReadYourWrites::propagate;
+    }
+
+    @Bean
+    public WebMvcConfigurer readYourWritesConfigurer(ReadYourWrites readYourWrites) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(readYourWrites);
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder replicaPoolMetrics(ReplicaPool replicaPool) {
+        return registry -> {
+            Gauge.builder("shareit.jdbc.replicas.healthy", replicaPool, ReplicaPool::getHealthyCount)
+                    .register(registry);
+            Gauge.builder("shareit.jdbc.replicas.configured", replicaPool, ReplicaPool::getSize)
+                    .register(registry);
+        };
+    }
+
+    record ReplicaRoutingPostProcessor(ObjectProvider<ReplicaPool> replicaPool,
+                                       ObjectProvider<MeterRegistry> meterRegistry)
+            implements BeanPostProcessor, Ordered {
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (bean instanceof DataSource dataSource && !(bean instanceof LazyConnectionDataSourceProxy)) {
+                LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(dataSource);
+                proxy.setReadOnlyDataSource(new ReplicaRoutingDataSource(dataSource, replicaPool.getObject(),
+                        meterRegistry.getObject()));
+                return proxy;
+            }
+            return bean;
+        }
+
+        @Override
+        public int getOrder() {
+            return POST_PROCESSOR_ORDER;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package ru.practicum.shareit.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+    private final DataSource primary;
+    private final ReplicaPool replicaPool;
+    private final Counter replicaReads;
+    private final Counter primaryReads;
+
+    public ReplicaRoutingDataSource(DataSource primary, ReplicaPool replicaPool, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replicaPool = replicaPool;
+        this.replicaReads = meterRegistry.counter("shareit.jdbc.reads", "target", "replica");
+        this.primaryReads = meterRegistry.counter("shareit.jdbc.reads", "target", "primary");
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    private Connection route(ConnectionFactory connectionFactory) throws SQLException {
+        if (!ReadYourWrites.isPrimaryRequired()) {
+            DataSource replica = replicaPool.next();
+            if (replica != null) {
+                try {
+                    Connection connection = connectionFactory.open(replica);
+                    replicaReads.increment();
+                    return connection;
+                } catch (SQLFeatureNotSupportedException e) {
+                    throw e;
+                } catch (SQLException e) {
+                    replicaPool.markUnhealthy(replica);
+                }
+            }
+        }
+        primaryReads.increment();
+        return connectionFactory.open(primary);
+    }
+
+    @FunctionalInterface
+    private interface ConnectionFactory {
+        Connection open(DataSource dataSource) throws SQLException;
+    }
+}
@@ -1,30 +1,53 @@
 package ru.practicum.shareit.item.controller;
 
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
 import lombok.AllArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentText;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoTime;
 import ru.practicum.shareit.item.mappers.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemAvailabilityService;
 import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.web.ETags;
+import ru.practicum.shareit.web.RateLimited;
+import ru.practicum.shareit.web.Tagged;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
 @RequestMapping("/items")
 @AllArgsConstructor
 public class ItemController {
+    private static final CacheControl ITEM_CACHE_CONTROL = CacheControl.noCache().cachePrivate();
+    private static final CacheControl SEARCH_CACHE_CONTROL = CacheControl.maxAge(Duration.ofSeconds(30)).cachePublic();
     private final ItemServiceImpl itemService;
     private final ItemMapper itemMapper;
+    private final ItemAvailabilityService itemAvailabilityService;
 
     @PostMapping
+    @RateLimited
     public ItemDto addItem(@RequestHeader("X-Sharer-User-Id") Long id, @Valid @RequestBody ItemDto itemDto) {
         return itemMapper.toItemDto(itemService.createItem(id, itemDto));
     }
 
     @PostMapping("/{itemId}/comment")
+    @RateLimited
     public CommentDto addComment(@RequestHeader("X-Sharer-User-Id") Long id,
                                  @PathVariable Long itemId,
                                  @RequestBody CommentText commentText) {
@@ -32,24 +55,67 @@ public class ItemController {
     }
 
     @GetMapping("/{id}")
-    public ItemDtoTime getItem(@PathVariable Long id) {
-        return itemService.findItemDtoTimeById(id);
+    public ResponseEntity<ItemDtoTime> getItem(@PathVariable Long id, WebRequest request) {
+        Tagged<ItemDtoTime> item = itemService.findItemDtoTimeById(id);
+        if (request.checkNotModified(item.eTag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(item.eTag())
+                    .cacheControl(ITEM_CACHE_CONTROL)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(item.eTag())
+                .cacheControl(ITEM_CACHE_CONTROL)
+                .body(item.body());
+    }
+
+    @GetMapping("/{id}/availability")
+    public ItemAvailabilityDto getItemAvailability(@PathVariable Long id,
+                                                   @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                   @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return itemAvailabilityService.getAvailability(id, from, to);
+    }
+
+    @GetMapping("/availability")
+    public List<ItemAvailabilityDto> getItemsAvailability(@RequestParam("ids") @Size(max = 1000) List<Long> ids,
+                                                          @RequestParam("from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                          @RequestParam("to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return itemAvailabilityService.getAvailability(ids, from, to);
     }
 
     @PatchMapping("/{id}")
-    public ItemDto updateItem(@RequestHeader("X-Sharer-User-Id") Long userId,
-                              @PathVariable Long id,
-                              @RequestBody ItemDto itemDto) {
-        return itemMapper.toItemDto(itemService.updateItem(userId, id, itemDto));
+    public ResponseEntity<ItemDto> updateItem(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                              @PathVariable Long id,
+                                              @RequestBody ItemDto itemDto) {
+        Item item = itemService.updateItem(userId, id, itemDto, ETags.version(ifMatch));
+        return ResponseEntity.ok()
+                .eTag(ETags.of(item.getVersion()))
+                .body(itemMapper.toItemDto(item));
     }
 
     @GetMapping
-    public List<ItemDto> getAllItemsOfUser(@RequestHeader("X-Sharer-User-Id") Long userId) {
+    public List<ItemDtoTime> getAllItemsOfUser(@RequestHeader("X-Sharer-User-Id") Long userId) {
         return itemService.getAllItemsOfUser(userId);
     }
 
     @GetMapping("/search")
-    public List<ItemDto> searchItemsForRental(@RequestParam(value = "text") String text) {
-        return itemService.searchItemsForRental(text);
+    public ResponseEntity<List<ItemDto>> searchItemsForRental(@RequestParam(value = "text") String text,
+                                                              @RequestParam(value = "start", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                                              @RequestParam(value = "end", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+                                                              @RequestParam(value = "from", defaultValue = "0") @PositiveOrZero int from,
+                                                              @RequestParam(value = "size", defaultValue = "100") @Positive @Max(1000) int size,
+                                                              WebRequest request) {
+        Tagged<List<ItemDto>> items = itemService.searchItemsForRental(text, start, end, from, size);
+        if (request.checkNotModified(items.eTag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(items.eTag())
+                    .cacheControl(SEARCH_CACHE_CONTROL)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(items.eTag())
+                .cacheControl(SEARCH_CACHE_CONTROL)
+                .body(items.body());
     }
 }
@@ -0,0 +1,65 @@
+package ru.practicum.shareit.item.dto;
+
+import ru.practicum.shareit.booking.model.Status;
+
+import java.time.LocalDateTime;
+
+public interface ItemDetailRow {
+    Long getItemId();
+
+    String getName();
+
+    String getDescription();
+
+    Boolean getAvailable();
+
+    Long getVersion();
+
+    Long getSummaryId();
+
+    Long getLastId();
+
+    LocalDateTime getLastStart();
+
+    LocalDateTime getLastEnd();
+
+    Status getLastStatus();
+
+    Long getLastBookerId();
+
+    String getLastBookerName();
+
+    String getLastBookerEmail();
+
+    Long getLastVersion();
+
+    Long getLastBookerVersion();
+
+    Long getNextId();
+
+    LocalDateTime getNextStart();
+
+    LocalDateTime getNextEnd();
+
+    Status getNextStatus();
+
+    Long getNextBookerId();
+
+    String getNextBookerName();
+
+    String getNextBookerEmail();
+
+    Long getNextVersion();
+
+    Long getNextBookerVersion();
+
+    Long getCommentId();
+
+    String getCommentText();
+
+    LocalDateTime getCommentCreated();
+
+    String getCommentAuthorName();
+
+    Long getCommentAuthorVersion();
+}
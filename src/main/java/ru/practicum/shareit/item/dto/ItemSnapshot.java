@@ -0,0 +1,5 @@
+package ru.practicum.shareit.item.dto;
+
+public record ItemSnapshot(Long id, String name, String description, Boolean available, Long ownerId,
+                           Long version) {
+}
@@ -3,7 +3,9 @@ package ru.practicum.shareit.item.mappers;
 import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Component;
 import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemSnapshot;
 import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.user.dto.UserSnapshot;
 import ru.practicum.shareit.user.mappers.UserMapper;
 
 @Component
@@ -21,4 +23,14 @@ public class CommentMapper {
                 .created(comment.getCreatedDate())
                 .build();
     }
+
+    public CommentDto toDto(Comment comment, ItemSnapshot item, UserSnapshot author) {
+        return CommentDto.builder()
+                .id(comment.getId())
+                .text(comment.getText())
+                .item(itemMapper.toItemDto(item))
+                .authorName(author.name())
+                .created(comment.getCreatedDate())
+                .build();
+    }
 }
@@ -1,9 +1,17 @@
 package ru.practicum.shareit.item.mappers;
 
 import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDetailRow;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoTime;
+import ru.practicum.shareit.item.dto.ItemSnapshot;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
 
 @Component
 public class ItemMapper {
@@ -18,6 +26,31 @@ public class ItemMapper {
                 .build();
     }
 
+    public ItemDto toItemDto(ItemSnapshot item) {
+        return ItemDto.builder()
+                .id(item.id())
+                .name(item.name())
+                .description(item.description())
+                .available(item.available())
+                .build();
+    }
+
+    public ItemSnapshot toItemSnapshot(Item item) {
+        return new ItemSnapshot(item.getId(), item.getName(), item.getDescription(), item.getAvailable(),
+                item.getOwner().getId(), item.getVersion());
+    }
+
+    public Item toItem(ItemSnapshot item) {
+        return Item.builder()
+                .id(item.id())
+                .name(item.name())
+                .description(item.description())
+                .available(item.available())
+                .owner(User.builder().id(item.ownerId()).build())
+                .version(item.version())
+                .build();
+    }
+
     public ItemDtoTime toItemDtoTime(Item item) {
         return ItemDtoTime.builder()
                 .id(item.getId())
@@ -28,6 +61,53 @@ public class ItemMapper {
                 .build();
     }
 
+    public ItemDtoTime toItemDtoTime(List<ItemDetailRow> rows) {
+        ItemDetailRow row = rows.getFirst();
+        ItemDto itemDto = ItemDto.builder()
+                .id(row.getItemId())
+                .name(row.getName())
+                .description(row.getDescription())
+                .available(row.getAvailable())
+                .build();
+        ItemDtoTime itemDtoTime = ItemDtoTime.builder()
+                .id(itemDto.getId())
+                .name(itemDto.getName())
+                .description(itemDto.getDescription())
+                .available(itemDto.getAvailable())
+                .comments(rows.stream()
+                        .filter(commentRow -> commentRow.getCommentId() != null)
+                        .map(commentRow -> CommentDto.builder()
+                                .id(commentRow.getCommentId())
+                                .text(commentRow.getCommentText())
+                                .item(itemDto)
+                                .authorName(commentRow.getCommentAuthorName())
+                                .created(commentRow.getCommentCreated())
+                                .build())
+                        .toList())
+                .build();
+        if (row.getLastId() != null) {
+            itemDtoTime.setLastBooking(BookingDto.builder()
+                    .id(row.getLastId())
+                    .start(row.getLastStart())
+                    .end(row.getLastEnd())
+                    .item(itemDto)
+                    .booker(new UserDto(row.getLastBookerId(), row.getLastBookerName(), row.getLastBookerEmail()))
+                    .status(row.getLastStatus())
+                    .build());
+        }
+        if (row.getNextId() != null) {
+            itemDtoTime.setNextBooking(BookingDto.builder()
+                    .id(row.getNextId())
+                    .start(row.getNextStart())
+                    .end(row.getNextEnd())
+                    .item(itemDto)
+                    .booker(new UserDto(row.getNextBookerId(), row.getNextBookerName(), row.getNextBookerEmail()))
+                    .status(row.getNextStatus())
+                    .build());
+        }
+        return itemDtoTime;
+    }
+
     public Item toItem(ItemDto itemDto) {
         return Item.builder()
                 .id(itemDto.getId())
@@ -0,0 +1,67 @@
+package ru.practicum.shareit.item.model;
+
+import ru.practicum.shareit.item.dto.TimeSlotDto;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+public final class BookedIntervals {
+    public static final BookedIntervals EMPTY = new BookedIntervals(Collections.emptyNavigableMap());
+    public static final BookedIntervals MISSING = new BookedIntervals(Collections.emptyNavigableMap());
+    public static final BookedIntervals UNAVAILABLE = new BookedIntervals(Collections.emptyNavigableMap());
+    private final NavigableMap<LocalDateTime, LocalDateTime> intervals;
+
+    private BookedIntervals(NavigableMap<LocalDateTime, LocalDateTime> intervals) {
+        this.intervals = intervals;
+    }
+
+    public static BookedIntervals of(List<? extends Map.Entry<LocalDateTime, LocalDateTime>> sortedByStart) {
+        TreeMap<LocalDateTime, LocalDateTime> merged = new TreeMap<>();
+        Map.Entry<LocalDateTime, LocalDateTime> last = null;
+        for (Map.Entry<LocalDateTime, LocalDateTime> interval : sortedByStart) {
+            if (last != null && !interval.getKey().isAfter(last.getValue())) {
+                if (interval.getValue().isAfter(last.getValue())) {
+                    merged.put(last.getKey(), interval.getValue());
+                    last = merged.lastEntry();
+                }
+            } else {
+                merged.put(interval.getKey(), interval.getValue());
+                last = merged.lastEntry();
+            }
+        }
+        return merged.isEmpty() ? EMPTY : new BookedIntervals(Collections.unmodifiableNavigableMap(merged));
+    }
+
+    public List<TimeSlotDto> free(LocalDateTime from, LocalDateTime to) {
+        if (this == UNAVAILABLE) {
+            return List.of();
+        }
+        List<TimeSlotDto> free = new ArrayList<>();
+        LocalDateTime cursor = from;
+        Map.Entry<LocalDateTime, LocalDateTime> covering = intervals.floorEntry(from);
+        if (covering != null && covering.getValue().isAfter(cursor)) {
+            cursor = covering.getValue();
+        }
+        for (Map.Entry<LocalDateTime, LocalDateTime> booked : intervals.subMap(from, false, to, false).entrySet()) {
+            if (booked.getKey().isAfter(cursor)) {
+                free.add(new TimeSlotDto(cursor, booked.getKey()));
+            }
+            if (booked.getValue().isAfter(cursor)) {
+                cursor = booked.getValue();
+            }
+        }
+        if (cursor.isBefore(to)) {
+            free.add(new TimeSlotDto(cursor, to));
+        }
+        return free;
+    }
+
+    public int size() {
+        return intervals.size();
+    }
+}
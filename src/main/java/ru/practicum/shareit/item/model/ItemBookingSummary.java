@@ -0,0 +1,31 @@
+package ru.practicum.shareit.item.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "item_booking_summary")
+public class ItemBookingSummary {
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+    @Column(name = "last_booking_id")
+    private Long lastBookingId;
+    @Column(name = "last_booking_start")
+    private LocalDateTime lastBookingStart;
+    @Column(name = "next_booking_id")
+    private Long nextBookingId;
+    @Column(name = "next_booking_start")
+    private LocalDateTime nextBookingStart;
+    @Column(name = "valid_until")
+    private LocalDateTime validUntil;
+}
@@ -1,10 +1,13 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import ru.practicum.shareit.item.model.Comment;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentDbStorage extends JpaRepository<Comment, Long> {
-    List<Comment> findByItemId(Long id);
+    @EntityGraph(attributePaths = {"author"})
+    List<Comment> findByItemIdIn(Collection<Long> itemIds);
 }
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.item.repository;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ItemBookingSummaryDbStorage extends JpaRepository<ItemBookingSummary, Long> {
+    @Modifying
+    @Query("update ItemBookingSummary s set s.validUntil = ?2 where s.itemId = ?1")
+    int expire(Long itemId, LocalDateTime time);
+
+    @Modifying
+    @Query("update ItemBookingSummary s set s.validUntil = ?2 where s.itemId in ?1")
+    int expireAll(Collection<Long> itemIds, LocalDateTime time);
+
+    @Query(value = """
+            select item_id from item_booking_summary
+            where item_id in ?1
+            order by item_id
+            for update
+            """, nativeQuery = true)
+    List<Long> lockAll(Collection<Long> itemIds);
+
+    @Query("""
+            select s.itemId from ItemBookingSummary s
+            where s.validUntil <= ?1
+            order by s.validUntil
+            """)
+    List<Long> findExpiredItemIds(LocalDateTime time, Limit limit);
+
+    @Query("""
+            select i.id from Item i
+            where not exists (select s from ItemBookingSummary s where s.itemId = i.id)
+            order by i.id
+            """)
+    List<Long> findMissingItemIds(Limit limit);
+}
@@ -1,12 +1,93 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.item.dto.ItemDetailRow;
 import ru.practicum.shareit.item.model.Item;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemDbStorage extends JpaRepository<Item, Long> {
     List<Item> findItemByOwnerId(Long ownerId);
 
-    List<Item> findItemByAvailableIsTrueAndNameContainsIgnoreCaseOrDescriptionContainsIgnoreCase(String nameText, String descriptionText);
+    @Query(value = """
+            select i.item_id as itemId, i.name as name, i.description as description, i.available as available,
+                   i.version as version,
+                   lb.booking_id as lastId, lb.start as lastStart, lb.finish as lastEnd, lb.status as lastStatus,
+                   lu.user_id as lastBookerId, lu.name as lastBookerName, lu.email as lastBookerEmail,
+                   lb.version as lastVersion, lu.version as lastBookerVersion,
+                   nb.booking_id as nextId, nb.start as nextStart, nb.finish as nextEnd, nb.status as nextStatus,
+                   nu.user_id as nextBookerId, nu.name as nextBookerName, nu.email as nextBookerEmail,
+                   nb.version as nextVersion, nu.version as nextBookerVersion,
+                   c.comment_id as commentId, c.comment_text as commentText, c.created_date as commentCreated,
+                   cu.name as commentAuthorName, cu.version as commentAuthorVersion
+            from items i
+            left join (select b.* from bookings b
+                       where b.item_id = ?1
+                       and b.start < ?2
+                       order by b.start desc, b.booking_id desc
+                       limit 1) as lb on lb.item_id = i.item_id
+            left join users lu on lu.user_id = lb.booker_id
+            left join (select b.* from bookings b
+                       where b.item_id = ?1
+                       and b.start > ?3
+                       order by b.start, b.booking_id
+                       limit 1) as nb on nb.item_id = i.item_id
+            left join users nu on nu.user_id = nb.booker_id
+            left join comments c on c.item_id = i.item_id
+            left join users cu on cu.user_id = c.author_id
+            where i.item_id = ?1
+            order by c.created_date, c.comment_id
+            """, nativeQuery = true)
+    List<ItemDetailRow> findItemDetailById(Long id, LocalDateTime lastBefore, LocalDateTime nextAfter);
+
+    @Query(value = """
+            select i.item_id as itemId, i.name as name, i.description as description, i.available as available,
+                   i.version as version,
+                   s.item_id as summaryId,
+                   lb.booking_id as lastId, lb.start as lastStart, lb.finish as lastEnd, lb.status as lastStatus,
+                   lu.user_id as lastBookerId, lu.name as lastBookerName, lu.email as lastBookerEmail,
+                   lb.version as lastVersion, lu.version as lastBookerVersion,
+                   nb.booking_id as nextId, nb.start as nextStart, nb.finish as nextEnd, nb.status as nextStatus,
+                   nu.user_id as nextBookerId, nu.name as nextBookerName, nu.email as nextBookerEmail,
+                   nb.version as nextVersion, nu.version as nextBookerVersion,
+                   c.comment_id as commentId, c.comment_text as commentText, c.created_date as commentCreated,
+                   cu.name as commentAuthorName, cu.version as commentAuthorVersion
+            from items i
+            left join item_booking_summary s on s.item_id = i.item_id
+                 and (s.valid_until is null or s.valid_until > ?2)
+            left join bookings lb on lb.booking_id = s.last_booking_id and lb.start = s.last_booking_start
+            left join users lu on lu.user_id = lb.booker_id
+            left join bookings nb on nb.booking_id = s.next_booking_id and nb.start = s.next_booking_start
+            left join users nu on nu.user_id = nb.booker_id
+            left join comments c on c.item_id = i.item_id
+            left join users cu on cu.user_id = c.author_id
+            where i.item_id = ?1
+            order by c.created_date, c.comment_id
+            """, nativeQuery = true)
+    List<ItemDetailRow> findItemDetailFromSummary(Long id, LocalDateTime now);
+
+    @Query(value = """
+            select i.* from items i
+            where i.available
+            and (i.name ilike ?1 or i.description ilike ?1)
+            order by greatest(word_similarity(?2, i.name), word_similarity(?2, i.description)) desc, i.item_id
+            """, nativeQuery = true)
+    List<Item> searchAvailable(String pattern, String text, Pageable pageable);
+
+    @Query(value = """
+            select i.* from items i
+            where i.available
+            and (i.name ilike ?1 or i.description ilike ?1)
+            and not exists (select 1 from bookings b
+                            where b.item_id = i.item_id
+                            and b.status = 'APPROVED'
+                            and b.start < ?4
+                            and tsrange(b.start, b.finish) && tsrange(cast(?3 as timestamp), cast(?4 as timestamp)))
+            order by greatest(word_similarity(?2, i.name), word_similarity(?2, i.description)) desc, i.item_id
+            """, nativeQuery = true)
+    List<Item> searchAvailableBetween(String pattern, String text, LocalDateTime start, LocalDateTime end,
+                                     Pageable pageable);
 }
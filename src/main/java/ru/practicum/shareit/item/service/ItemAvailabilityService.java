@@ -0,0 +1,169 @@
+package ru.practicum.shareit.item.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.ItemInterval;
+import ru.practicum.shareit.booking.model.BookingChangedEvent;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingDbStorage;
+import ru.practicum.shareit.exception.BadRequest;
+import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.model.BookedIntervals;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Service
+public class ItemAvailabilityService {
+    private static final List<Status> ACTIVE_STATUSES = List.of(Status.WAITING, Status.APPROVED);
+    private final BookingDbStorage bookingDbStorage;
+    private final Cache<Long, BookedIntervals> intervals;
+    private final AtomicLong generation = new AtomicLong();
+
+    public ItemAvailabilityService(BookingDbStorage bookingDbStorage, MeterRegistry meterRegistry,
+                                   @Value("${shareit.item-availability.maximum-weight:1000000}") long maximumWeight,
+                                   @Value("${shareit.item-availability.expire-after-write:PT10M}") Duration expireAfterWrite) {
+        this.bookingDbStorage = bookingDbStorage;
+        this.intervals = Caffeine.newBuilder()
+                .maximumWeight(maximumWeight)
+                .<Long, BookedIntervals>weigher((itemId, booked) -> booked.size() + 1)
+                .expireAfterWrite(expireAfterWrite)
+                .softValues()
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, intervals, "itemAvailability");
+    }
+
+    public ItemAvailabilityDto getAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        log.info("Getting availability of item {} from {} to {}", itemId, from, to);
+        BookedIntervals booked = intervals.get(itemId, id -> load(List.of(id)).get(id));
+        if (booked == BookedIntervals.MISSING) {
+            throw new NotFoundException("Item with id: " + itemId + " not found");
+        }
+        return toAvailability(itemId, booked, from, to);
+    }
+
+    public List<ItemAvailabilityDto> getAvailability(Collection<Long> itemIds, LocalDateTime from, LocalDateTime to) {
+        log.info("Getting availability of {} items from {} to {}", itemIds.size(), from, to);
+        Map<Long, BookedIntervals> booked = new HashMap<>(intervals.getAllPresent(itemIds));
+        List<Long> missing = itemIds.stream().filter(itemId -> !booked.containsKey(itemId)).distinct().toList();
+        if (!missing.isEmpty()) {
+            // A bulk load is not atomic per key the way a single get is: an invalidation that lands while the
+            // query runs would be overwritten by the stale result, so the result is only cached if none did.
+            long loadGeneration = generation.get();
+            load(missing).forEach((itemId, loaded) -> {
+                booked.put(itemId, loaded);
+                intervals.asMap().compute(itemId, (id, cached) ->
+                        cached != null || generation.get() != loadGeneration ? cached : loaded);
+            });
+        }
+        return itemIds.stream()
+                .distinct()
+                .sorted()
+                .filter(itemId -> booked.get(itemId) != BookedIntervals.MISSING)
+                .map(itemId -> toAvailability(itemId, booked.get(itemId), from, to))
+                .toList();
+    }
+
+    public void invalidate(Collection<Long> itemIds) {
+        Set<Long> pending = Set.copyOf(itemIds);
+        afterCommit(() -> {
+            generation.incrementAndGet();
+            intervals.invalidateAll(pending);
+        });
+    }
+
+    // Item ids come from pooled sequence blocks, so an id that was missing may be inserted later by another node
+    // or a bulk import whose ids are not known here.
+    public void invalidateMissing() {
+        afterCommit(() -> {
+            generation.incrementAndGet();
+            intervals.asMap().values().removeIf(booked -> booked == BookedIntervals.MISSING);
+        });
+    }
+
+    public void invalidateAll() {
+        afterCommit(() -> {
+            generation.incrementAndGet();
+            intervals.invalidateAll();
+        });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onBookingChanged(BookingChangedEvent event) {
+        generation.incrementAndGet();
+        intervals.invalidate(event.itemId());
+    }
+
+    private void afterCommit(Runnable invalidation) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidation.run();
+                }
+            });
+        } else {
+            invalidation.run();
+        }
+    }
+
+    private ItemAvailabilityDto toAvailability(Long itemId, BookedIntervals booked, LocalDateTime from,
+                                               LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new BadRequest("The start of the period must be before its end");
+        }
+        LocalDateTime start = from.isBefore(LocalDateTime.now()) ? LocalDateTime.now() : from;
+        return ItemAvailabilityDto.builder()
+                .itemId(itemId)
+                .from(from)
+                .to(to)
+                .free(start.isBefore(to) ? booked.free(start, to) : List.of())
+                .build();
+    }
+
+    private Map<Long, BookedIntervals> load(Collection<Long> itemIds) {
+        Map<Long, List<Map.Entry<LocalDateTime, LocalDateTime>>> byItem = new HashMap<>();
+        Set<Long> unavailable = new HashSet<>();
+        for (ItemInterval interval : bookingDbStorage.findIntervalsByItemIdIn(itemIds, ACTIVE_STATUSES,
+                LocalDateTime.now())) {
+            List<Map.Entry<LocalDateTime, LocalDateTime>> booked = byItem.computeIfAbsent(interval.getItemId(),
+                    itemId -> new ArrayList<>());
+            if (!Boolean.TRUE.equals(interval.getAvailable())) {
+                unavailable.add(interval.getItemId());
+            } else if (interval.getStart() != null) {
+                booked.add(Map.entry(interval.getStart(), interval.getEnd()));
+            }
+        }
+        Map<Long, BookedIntervals> loaded = new HashMap<>();
+        for (Long itemId : itemIds) {
+            List<Map.Entry<LocalDateTime, LocalDateTime>> booked = byItem.get(itemId);
+            if (booked == null) {
+                loaded.put(itemId, BookedIntervals.MISSING);
+            } else {
+                loaded.put(itemId, unavailable.contains(itemId) ? BookedIntervals.UNAVAILABLE
+                        : BookedIntervals.of(booked));
+            }
+        }
+        return loaded;
+    }
+}
@@ -0,0 +1,116 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.dto.ItemStart;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingChangedEvent;
+import ru.practicum.shareit.booking.repository.BookingDbStorage;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+import ru.practicum.shareit.item.repository.ItemBookingSummaryDbStorage;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ItemBookingSummaryService {
+    public static final long LAST_BOOKING_DELAY_SECONDS = 30;
+    private static final String UPSERT_SUMMARY = """
+            insert into item_booking_summary (item_id, last_booking_id, last_booking_start, next_booking_id,
+                                              next_booking_start, valid_until)
+            values (?, ?, ?, ?, ?, ?)
+            on conflict (item_id) do update
+            set last_booking_id = excluded.last_booking_id,
+                last_booking_start = excluded.last_booking_start,
+                next_booking_id = excluded.next_booking_id,
+                next_booking_start = excluded.next_booking_start,
+                valid_until = excluded.valid_until
+            """;
+    private final ItemBookingSummaryDbStorage itemBookingSummaryDbStorage;
+    private final BookingDbStorage bookingDbStorage;
+    private final JdbcTemplate jdbcTemplate;
+    @Value("${shareit.item-booking-summary.batch-size:500}")
+    private int batchSize;
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void expire(BookingChangedEvent event) {
+        itemBookingSummaryDbStorage.expire(event.itemId(), LocalDateTime.now());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void refresh(BookingChangedEvent event) {
+        refresh(List.of(event.itemId()));
+    }
+
+    @Transactional
+    @Scheduled(fixedDelayString = "${shareit.item-booking-summary.roll-forward-delay:PT30S}")
+    public void rollForward() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> itemIds = new ArrayList<>(itemBookingSummaryDbStorage.findExpiredItemIds(now, Limit.of(batchSize)));
+        itemIds.addAll(itemBookingSummaryDbStorage.findMissingItemIds(Limit.of(batchSize)));
+        if (!itemIds.isEmpty()) {
+            refresh(itemIds);
+            log.info("Item booking summaries rolled forward: {}", itemIds.size());
+        }
+    }
+
+    // Booking writers hold the item's advisory lock (createBooking, bulk import) or the summary row lock taken by
+    // expire until they commit. Taking both before reading makes the read see every committed booking, so a refresh
+    // that started earlier cannot overwrite a newer one with a stale next booking.
+    private void refresh(Collection<Long> itemIds) {
+        List<Long> sortedIds = itemIds.stream().distinct().sorted().toList();
+        bookingDbStorage.lockItems(sortedIds);
+        itemBookingSummaryDbStorage.lockAll(sortedIds);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime lastBefore = now.minusSeconds(LAST_BOOKING_DELAY_SECONDS);
+        Map<Long, ItemBookingSummary> summaries = sortedIds.stream()
+                .collect(Collectors.toMap(Function.identity(), itemId -> ItemBookingSummary.builder()
+                        .itemId(itemId)
+                        .build()));
+        for (Booking booking : bookingDbStorage.findLastAndNextByItemIdIn(sortedIds, lastBefore, now)) {
+            ItemBookingSummary summary = summaries.get(booking.getItem().getId());
+            if (booking.getStart().isBefore(lastBefore)) {
+                summary.setLastBookingId(booking.getId());
+                summary.setLastBookingStart(booking.getStart());
+            } else {
+                summary.setNextBookingId(booking.getId());
+                summary.setNextBookingStart(booking.getStart());
+                summary.setValidUntil(booking.getStart());
+            }
+        }
+        for (ItemStart pending : bookingDbStorage.findFirstStartByItemIdIn(sortedIds, lastBefore, now)) {
+            ItemBookingSummary summary = summaries.get(pending.getItemId());
+            LocalDateTime validUntil = pending.getStart().plusSeconds(LAST_BOOKING_DELAY_SECONDS);
+            if (summary.getValidUntil() == null || validUntil.isBefore(summary.getValidUntil())) {
+                summary.setValidUntil(validUntil);
+            }
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SUMMARY, summaries.values().stream()
+                .map(summary -> new Object[]{summary.getItemId(), summary.getLastBookingId(),
+                        toTimestamp(summary.getLastBookingStart()), summary.getNextBookingId(),
+                        toTimestamp(summary.getNextBookingStart()), toTimestamp(summary.getValidUntil())})
+                .toList());
+    }
+
+    private static Timestamp toTimestamp(LocalDateTime time) {
+        return time == null ? null : Timestamp.valueOf(time);
+    }
+}
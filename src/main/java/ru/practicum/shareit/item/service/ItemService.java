@@ -4,22 +4,27 @@ import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentText;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoTime;
+import ru.practicum.shareit.item.dto.ItemSnapshot;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.web.Tagged;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
     Item createItem(Long id, ItemDto itemDto);
 
-    Item updateItem(Long userId, Long id, ItemDto itemDto);
+    Item updateItem(Long userId, Long id, ItemDto itemDto, Long expectedVersion);
 
-    Item findItemById(Long id);
+    ItemSnapshot findItemById(Long id);
 
-    List<ItemDto> getAllItemsOfUser(Long userId);
+    Item getItemReference(Long id);
 
-    List<ItemDto> searchItemsForRental(String text);
+    List<ItemDtoTime> getAllItemsOfUser(Long userId);
 
-    ItemDtoTime findItemDtoTimeById(Long id);
+    Tagged<List<ItemDto>> searchItemsForRental(String text, LocalDateTime start, LocalDateTime end, int from, int size);
+
+    Tagged<ItemDtoTime> findItemDtoTimeById(Long id);
 
     CommentDto addComment(Long id, Long itemId, CommentText commentText);
 }
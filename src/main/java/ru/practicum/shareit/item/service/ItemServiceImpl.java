@@ -1,36 +1,52 @@
 package ru.practicum.shareit.item.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.mappers.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingDbStorage;
+import ru.practicum.shareit.config.OptimisticLockRetry;
 import ru.practicum.shareit.exception.BadRequest;
 import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.CommentText;
+import ru.practicum.shareit.item.dto.ItemDetailRow;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoTime;
+import ru.practicum.shareit.item.dto.ItemSnapshot;
 import ru.practicum.shareit.item.mappers.CommentMapper;
 import ru.practicum.shareit.item.mappers.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentDbStorage;
 import ru.practicum.shareit.item.repository.ItemDbStorage;
-import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.dto.UserSnapshot;
 import ru.practicum.shareit.user.service.UserServiceImpl;
+import ru.practicum.shareit.web.ETags;
+import ru.practicum.shareit.web.OffsetPageRequest;
+import ru.practicum.shareit.web.Tagged;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
+@Timed(value = "shareit.service", histogram = true)
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class ItemServiceImpl implements ItemService {
@@ -41,97 +57,159 @@ public class ItemServiceImpl implements ItemService {
     private final BookingMapper bookingMapper;
     private final CommentDbStorage commentDbStorage;
     private final CommentMapper commentMapper;
+    private final OptimisticLockRetry optimisticLockRetry;
+    private final ItemAvailabilityService itemAvailabilityService;
 
     @Override
     @Transactional
     public Item createItem(Long id, ItemDto itemDto) {
         log.info("Creating new item: {}", itemDto);
-        User user = userService.findUserById(id);
+        userService.findUserById(id);
         Item item = itemMapper.toItem(itemDto);
-        item.setOwner(user);
+        item.setOwner(userService.getUserReference(id));
         Item createdItem = itemDbStorage.save(item);
+        itemAvailabilityService.invalidate(List.of(createdItem.getId()));
         log.info("Item created: {}", createdItem);
         return createdItem;
     }
 
     @Override
-    public ItemDtoTime findItemDtoTimeById(Long id) {
+    public Tagged<ItemDtoTime> findItemDtoTimeById(Long id) {
         log.info("Finding itemDtoTime by id: {}", id);
-        ItemDtoTime itemDtoTime = itemMapper.toItemDtoTime(findItemById(id));
-        ZoneId zoneId = ZoneId.systemDefault();
-        LocalDateTime localDateTimeNow = LocalDateTime.ofInstant(Instant.now(), zoneId);
-        Booking[] bookings = new Booking[2];
-        bookings[0] = bookingDbStorage.findByItemIdAndStartBeforeOrderByStart(id, localDateTimeNow.minusSeconds(30));
-        bookings[1] = bookingDbStorage.findByItemIdAndStartAfterOrderByStart(id, localDateTimeNow);
-        if (bookings[0] != null) itemDtoTime.setLastBooking(bookingMapper.toBookingDto(bookings[0]));
-        if (bookings[1] != null) itemDtoTime.setNextBooking(bookingMapper.toBookingDto(bookings[1]));
-        itemDtoTime.setComments(commentDbStorage.findByItemId(id).stream().map(commentMapper::toDto).toList());
+        LocalDateTime localDateTimeNow = LocalDateTime.ofInstant(Instant.now(), ZoneId.systemDefault());
+        List<ItemDetailRow> rows = itemDbStorage.findItemDetailFromSummary(id, localDateTimeNow);
+        if (rows.isEmpty()) {
+            throw new NotFoundException("Item with id: " + id + " not found");
+        }
+        if (rows.getFirst().getSummaryId() == null) {
+            rows = itemDbStorage.findItemDetailById(id,
+                    localDateTimeNow.minusSeconds(ItemBookingSummaryService.LAST_BOOKING_DELAY_SECONDS), localDateTimeNow);
+        }
+        ItemDtoTime itemDtoTime = itemMapper.toItemDtoTime(rows);
         log.info("ItemDtoTime find: {}", itemDtoTime);
-        return itemDtoTime;
+        return new Tagged<>(itemDtoTime, eTag(rows));
+    }
+
+    // Every column shown in the detail belongs to a row whose version is selected alongside it.
+    private static String eTag(List<ItemDetailRow> rows) {
+        ItemDetailRow row = rows.getFirst();
+        StringJoiner detail = new StringJoiner("-")
+                .add(row.getLastId() + ":" + row.getLastVersion() + ":" + row.getLastBookerVersion())
+                .add(row.getNextId() + ":" + row.getNextVersion() + ":" + row.getNextBookerVersion());
+        rows.stream()
+                .filter(commentRow -> commentRow.getCommentId() != null)
+                .forEach(commentRow -> detail.add(commentRow.getCommentId() + ":" + commentRow.getCommentAuthorVersion()));
+        return ETags.of(row.getVersion(), detail.toString());
     }
 
+    // Only the owner id is cached, so a change to the owner's profile cannot leave a stale copy here.
     @Override
-    public Item findItemById(Long id) {
+    @Cacheable(cacheNames = "items", key = "#id")
+    public ItemSnapshot findItemById(Long id) {
         log.info("Finding item by id: {}", id);
         Item item = itemDbStorage.findById(id)
                 .orElseThrow(() -> new NotFoundException("Item with id: " + id + " not found"));
-        User owner = item.getOwner();
-        item.setOwner(owner);
         log.info("Item find: {}", item);
-        return item;
+        return itemMapper.toItemSnapshot(item);
     }
 
     @Override
-    @Transactional
-    public Item updateItem(Long userId, Long id, ItemDto itemDto) {
+    public Item getItemReference(Long id) {
+        return itemDbStorage.getReferenceById(id);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @CacheEvict(cacheNames = "items", key = "#id")
+    public Item updateItem(Long userId, Long id, ItemDto itemDto, Long expectedVersion) {
         log.info("Updating item: {}", itemDto);
         userService.findUserById(userId);
-        Item item = findItemById(id);
-        Item newItem = itemMapper.toItem(itemDto);
-        newItem.setId(id);
-        newItem.setOwner(item.getOwner());
-        if (item.getOwner().getId().equals(userId)) {
-            if (newItem.getName() == null) {
-                newItem.setName(item.getName());
+        return optimisticLockRetry.execute(expectedVersion == null, () -> {
+            Item item = itemDbStorage.findById(id)
+                    .orElseThrow(() -> new NotFoundException("Item with id: " + id + " not found"));
+            if (!item.getOwner().getId().equals(userId)) {
+                throw new ConflictException("Only the owner of the item can edit it");
             }
-            if (newItem.getDescription() == null) {
-                newItem.setDescription(item.getDescription());
+            ETags.checkVersion(expectedVersion, item.getVersion());
+            if (itemDto.getName() != null) {
+                item.setName(itemDto.getName());
             }
-            if (newItem.getAvailable() == null) {
-                newItem.setAvailable(item.getAvailable());
+            if (itemDto.getDescription() != null) {
+                item.setDescription(itemDto.getDescription());
             }
-        } else {
-            throw new ConflictException("Only the owner of the item can edit it");
-        }
-        Item itemUpdated = itemDbStorage.save(newItem);
-        log.info("ItemDto update: {}", itemUpdated);
-        return itemUpdated;
+            if (itemDto.getAvailable() != null && !itemDto.getAvailable().equals(item.getAvailable())) {
+                item.setAvailable(itemDto.getAvailable());
+                itemAvailabilityService.invalidate(List.of(id));
+            }
+            item.setRequest(itemDto.getRequest());
+            log.info("ItemDto update: {}", item);
+            return item;
+        });
     }
 
     @Override
-    public List<ItemDto> getAllItemsOfUser(Long userId) {
+    public List<ItemDtoTime> getAllItemsOfUser(Long userId) {
         log.info("Getting all items of user: {}", userId);
         userService.findUserById(userId);
-        List<ItemDto> itemDtoList = itemDbStorage.findItemByOwnerId(userId).stream()
-                .map(itemMapper::toItemDto)
+        List<Item> items = itemDbStorage.findItemByOwnerId(userId);
+        if (items.isEmpty()) {
+            return List.of();
+        }
+        List<Long> itemIds = items.stream().map(Item::getId).toList();
+        LocalDateTime localDateTimeNow = LocalDateTime.ofInstant(Instant.now(), ZoneId.systemDefault());
+        LocalDateTime lastBefore = localDateTimeNow.minusSeconds(30);
+        Map<Long, Booking> lastBookings = new HashMap<>();
+        Map<Long, Booking> nextBookings = new HashMap<>();
+        for (Booking booking : bookingDbStorage.findLastAndNextByItemIdIn(itemIds, lastBefore, localDateTimeNow)) {
+            if (booking.getStart().isBefore(lastBefore)) {
+                lastBookings.put(booking.getItem().getId(), booking);
+            } else {
+                nextBookings.put(booking.getItem().getId(), booking);
+            }
+        }
+        Map<Long, List<CommentDto>> comments = commentDbStorage.findByItemIdIn(itemIds).stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId(),
+                        Collectors.mapping(commentMapper::toDto, Collectors.toList())));
+        List<ItemDtoTime> itemDtoTimeList = items.stream()
+                .map(item -> {
+                    ItemDtoTime itemDtoTime = itemMapper.toItemDtoTime(item);
+                    Booking lastBooking = lastBookings.get(item.getId());
+                    Booking nextBooking = nextBookings.get(item.getId());
+                    if (lastBooking != null) itemDtoTime.setLastBooking(bookingMapper.toBookingDto(lastBooking));
+                    if (nextBooking != null) itemDtoTime.setNextBooking(bookingMapper.toBookingDto(nextBooking));
+                    itemDtoTime.setComments(comments.getOrDefault(item.getId(), List.of()));
+                    return itemDtoTime;
+                })
                 .toList();
-        log.info("ItemDtoListUser: {}", itemDtoList);
-        return itemDtoList;
+        log.info("ItemDtoListUser: {}", itemDtoTimeList);
+        return itemDtoTimeList;
     }
 
     @Override
-    public List<ItemDto> searchItemsForRental(String text) {
-        log.info("Searching for items for rental: {}", text);
-        if (text == null || text.isEmpty()) {
-            return new ArrayList<>();
+    public Tagged<List<ItemDto>> searchItemsForRental(String text, LocalDateTime start, LocalDateTime end,
+                                                      int from, int size) {
+        log.info("Searching for items for rental: {} from {} to {}", text, start, end);
+        if ((start == null) != (end == null)) {
+            throw new BadRequest("Both start and end of the rental period must be specified");
+        }
+        if (start != null && !start.isBefore(end)) {
+            throw new BadRequest("The start of the rental period must be before its end");
+        }
+        if (text == null || text.isBlank()) {
+            return new Tagged<>(new ArrayList<>(), ETags.ofContent(""));
         } else {
-            List<ItemDto> itemDtoList = itemDbStorage
-                    .findItemByAvailableIsTrueAndNameContainsIgnoreCaseOrDescriptionContainsIgnoreCase(text, text)
-                    .stream()
+            String pattern = "%" + text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+            Pageable page = OffsetPageRequest.of(from, size);
+            List<Item> items = start == null
+                    ? itemDbStorage.searchAvailable(pattern, text, page)
+                    : itemDbStorage.searchAvailableBetween(pattern, text, start, end, page);
+            List<ItemDto> itemDtoList = items.stream()
                     .map(itemMapper::toItemDto)
                     .toList();
             log.info("ItemDtoListRental: {}", itemDtoList);
-            return itemDtoList;
+            return new Tagged<>(itemDtoList, ETags.ofContent(items.stream()
+                    .map(item -> item.getId() + ":" + item.getVersion())
+                    .collect(Collectors.joining("-"))));
         }
     }
 
@@ -139,19 +217,18 @@ public class ItemServiceImpl implements ItemService {
     @Transactional
     public CommentDto addComment(Long id, Long itemId, CommentText commentText) {
         log.info("Adding comment: {}", commentText);
-        User user = userService.findUserById(id);
-        Item item = findItemById(itemId);
-        List<Booking> bookings = bookingDbStorage.findByItemIdAndBookerIdAndEndBefore(itemId, id, LocalDateTime.now());
-        if (bookings.isEmpty()) {
+        UserSnapshot user = userService.findUserById(id);
+        ItemSnapshot item = findItemById(itemId);
+        if (!bookingDbStorage.existsFinishedByItemIdAndBookerId(itemId, id, LocalDateTime.now())) {
             throw new BadRequest("The user with id:" + id + " did not rent an item with id:" + itemId);
         }
         Comment comment = Comment.builder()
                 .text(commentText.getText())
-                .item(item)
-                .author(user)
+                .item(getItemReference(itemId))
+                .author(userService.getUserReference(id))
                 .createdDate(LocalDateTime.now())
                 .build();
-        CommentDto commentDto = commentMapper.toDto(commentDbStorage.save(comment));
+        CommentDto commentDto = commentMapper.toDto(commentDbStorage.save(comment), item, user);
         log.info("CommentDto: {}", commentDto);
         return commentDto;
     }
@@ -0,0 +1,89 @@
+package ru.practicum.shareit.outbox.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.model.BookingChangedEvent;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+import ru.practicum.shareit.outbox.repository.OutboxDbStorage;
+import ru.practicum.shareit.outbox.sink.OutboxSink;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Service
+public class OutboxService {
+    private final OutboxDbStorage outboxDbStorage;
+    private final OutboxSink outboxSink;
+    private final Counter published;
+    private final Timer publishTimer;
+    private final AtomicLong lagMillis = new AtomicLong();
+    @Value("${shareit.outbox.batch-size:500}")
+    private int batchSize;
+    @Value("${shareit.outbox.retention:P7D}")
+    private Duration retention;
+
+    public OutboxService(OutboxDbStorage outboxDbStorage, OutboxSink outboxSink, MeterRegistry meterRegistry) {
+        this.outboxDbStorage = outboxDbStorage;
+        this.outboxSink = outboxSink;
+        this.published = meterRegistry.counter("shareit.outbox.published");
+        this.publishTimer = Timer.builder("shareit.outbox.publish").register(meterRegistry);
+        TimeGauge.builder("shareit.outbox.lag", lagMillis, TimeUnit.MILLISECONDS, AtomicLong::get)
+                .register(meterRegistry);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void record(BookingChangedEvent event) {
+        outboxDbStorage.save(toOutboxEvent(event));
+    }
+
+    public void recordAll(Collection<BookingChangedEvent> events) {
+        outboxDbStorage.saveAll(events.stream().map(this::toOutboxEvent).toList());
+    }
+
+    @Transactional
+    @Scheduled(fixedDelayString = "${shareit.outbox.poll-delay:PT1S}")
+    public void publish() {
+        List<OutboxEvent> events = outboxDbStorage.findByPublishedAtIsNullOrderById(Limit.of(batchSize));
+        if (events.isEmpty()) {
+            lagMillis.set(0);
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        lagMillis.set(Duration.between(events.getFirst().getCreatedAt(), now).toMillis());
+        publishTimer.record(() -> outboxSink.publish(events));
+        events.forEach(event -> event.setPublishedAt(now));
+        published.increment(events.size());
+        log.debug("Booking events published: {}", events.size());
+    }
+
+    @Transactional
+    @Scheduled(fixedDelayString = "${shareit.outbox.cleanup-delay:PT1H}")
+    public void cleanup() {
+        int deleted = outboxDbStorage.deletePublishedBefore(LocalDateTime.now().minus(retention));
+        log.info("Published booking events deleted: {}", deleted);
+    }
+
+    private OutboxEvent toOutboxEvent(BookingChangedEvent event) {
+        return OutboxEvent.builder()
+                .bookingId(event.bookingId())
+                .itemId(event.itemId())
+                .status(event.status())
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -2,15 +2,24 @@ package ru.practicum.shareit.user.controller;
 
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserSnapshot;
 import ru.practicum.shareit.user.mappers.UserMapper;
+import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserServiceImpl;
+import ru.practicum.shareit.web.ETags;
 
 @RestController
 @RequestMapping(path = "/users")
 @AllArgsConstructor
 public class UserController {
+    private static final CacheControl USER_CACHE_CONTROL = CacheControl.noCache().cachePrivate();
     private final UserServiceImpl userService;
     private final UserMapper userMapper;
 
@@ -20,8 +29,16 @@ public class UserController {
     }
 
     @GetMapping("/{id}")
-    public UserDto getUser(@PathVariable Long id) {
-        return userMapper.toUserDto(userService.findUserById(id));
+    public ResponseEntity<UserDto> getUser(@PathVariable Long id, WebRequest request) {
+        UserSnapshot user = userService.findUserById(id);
+        String eTag = ETags.of(user.version());
+        if (request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(USER_CACHE_CONTROL).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(USER_CACHE_CONTROL)
+                .body(userMapper.toUserDto(user));
     }
 
     @DeleteMapping("/{id}")
@@ -30,7 +47,12 @@ public class UserController {
     }
 
     @PatchMapping("/{id}")
-    public UserDto updateUser(@PathVariable Long id, @Valid @RequestBody UserDto userDto) {
-        return userMapper.toUserDto(userService.updateUser(id, userDto));
+    public ResponseEntity<UserDto> updateUser(@PathVariable Long id,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                              @Valid @RequestBody UserDto userDto) {
+        User user = userService.updateUser(id, userDto, ETags.version(ifMatch));
+        return ResponseEntity.ok()
+                .eTag(ETags.of(user.getVersion()))
+                .body(userMapper.toUserDto(user));
     }
 }
\ No newline at end of file
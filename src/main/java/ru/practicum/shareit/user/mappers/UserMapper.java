@@ -2,6 +2,7 @@ package ru.practicum.shareit.user.mappers;
 
 import org.springframework.stereotype.Component;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserSnapshot;
 import ru.practicum.shareit.user.model.User;
 
 @Component
@@ -14,6 +15,27 @@ public class UserMapper {
                 .build();
     }
 
+    public UserDto toUserDto(UserSnapshot user) {
+        return UserDto.builder()
+                .id(user.id())
+                .name(user.name())
+                .email(user.email())
+                .build();
+    }
+
+    public UserSnapshot toUserSnapshot(User user) {
+        return new UserSnapshot(user.getId(), user.getName(), user.getEmail(), user.getVersion());
+    }
+
+    public User toUser(UserSnapshot user) {
+        return User.builder()
+                .id(user.id())
+                .name(user.name())
+                .email(user.email())
+                .version(user.version())
+                .build();
+    }
+
     public User toUser(UserDto userDto) {
         return User.builder()
                 .id(userDto.getId())
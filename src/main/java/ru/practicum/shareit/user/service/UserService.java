@@ -1,14 +1,17 @@
 package ru.practicum.shareit.user.service;
 
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserSnapshot;
 import ru.practicum.shareit.user.model.User;
 
 public interface UserService {
     User createUser(UserDto userDto);
 
-    User updateUser(Long id, UserDto userDto);
+    User updateUser(Long id, UserDto userDto, Long expectedVersion);
 
-    User findUserById(Long id);
+    UserSnapshot findUserById(Long id);
+
+    User getUserReference(Long id);
 
     void deleteUserById(Long id);
 }
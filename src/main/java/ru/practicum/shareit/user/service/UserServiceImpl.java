@@ -1,22 +1,36 @@
 package ru.practicum.shareit.user.service;
 
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.config.OptimisticLockRetry;
 import ru.practicum.shareit.exception.NotFoundException;
+import ru.practicum.shareit.item.service.ItemAvailabilityService;
 import ru.practicum.shareit.user.repository.UserDbStorage;
 import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.dto.UserSnapshot;
 import ru.practicum.shareit.user.mappers.UserMapper;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.web.ETags;
 
 @Slf4j
 @Service
+@Timed(value = "shareit.service", histogram = true)
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class UserServiceImpl implements UserService {
     private final UserDbStorage userDbStorage;
     private final UserMapper userMapper;
+    private final OptimisticLockRetry optimisticLockRetry;
+    private final ItemAvailabilityService itemAvailabilityService;
+    private final TransactionTemplate transactionTemplate;
 
     @Override
     @Transactional
@@ -28,33 +42,53 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    @Transactional
-    public User updateUser(Long id, UserDto userDto) {
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @CacheEvict(cacheNames = "users", key = "#id")
+    public User updateUser(Long id, UserDto userDto, Long expectedVersion) {
         log.info("Updating user: {}", userDto);
-        User user = findUserById(id);
-        User newUser = userMapper.toUser(userDto);
-        newUser.setId(id);
-        if (newUser.getName() == null) newUser.setName(user.getName());
-        if (newUser.getEmail() == null) newUser.setEmail(user.getEmail());
-        User updatedUser = userDbStorage.save(newUser);
+        User updatedUser = optimisticLockRetry.execute(expectedVersion == null, () -> {
+            User user = userDbStorage.findById(id)
+                    .orElseThrow(() -> new NotFoundException("User with id: " + id + " not found"));
+            ETags.checkVersion(expectedVersion, user.getVersion());
+            if (userDto.getName() != null) user.setName(userDto.getName());
+            if (userDto.getEmail() != null) user.setEmail(userDto.getEmail());
+            return user;
+        });
         log.info("User updated: {}", updatedUser);
         return updatedUser;
     }
 
+    // The cache holds immutable snapshots: a cached entity would be shared by every persistence context
+    // that reads it and could be mutated or re-attached by any of them.
     @Override
-    public User findUserById(Long id) {
+    @Cacheable(cacheNames = "users", key = "#id")
+    public UserSnapshot findUserById(Long id) {
         log.info("Finding user by id: {}", id);
         User user = userDbStorage.findById(id)
                 .orElseThrow(() -> new NotFoundException("User with id: " + id + " not found"));
         log.info("User found: {}", user);
-        return user;
+        return userMapper.toUserSnapshot(user);
     }
 
     @Override
-    @Transactional
+    public User getUserReference(Long id) {
+        return userDbStorage.getReferenceById(id);
+    }
+
+    // The eviction runs after this method returns, so the delete must already be committed by then; otherwise a
+    // concurrent read could cache the deleted user again before the commit.
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @Caching(evict = {
+            @CacheEvict(cacheNames = "users", key = "#id"),
+            @CacheEvict(cacheNames = "items", allEntries = true)
+    })
     public void deleteUserById(Long id) {
         log.info("Deleting user by id: {}", id);
-        userDbStorage.deleteById(id);
+        transactionTemplate.executeWithoutResult(status -> {
+            userDbStorage.deleteById(id);
+            itemAvailabilityService.invalidateAll();
+        });
         log.info("User deleted: {}", id);
     }
 }
@@ -0,0 +1,49 @@
+package ru.practicum.shareit.web;
+
+import org.springframework.util.DigestUtils;
+import ru.practicum.shareit.exception.PreconditionFailedException;
+
+import java.nio.charset.StandardCharsets;
+
+public final class ETags {
+    private static final char SEPARATOR = '.';
+
+    private ETags() {
+    }
+
+    public static String of(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    public static String of(Long version, String detail) {
+        return "\"" + version + SEPARATOR
+                + DigestUtils.md5DigestAsHex(detail.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    public static String ofContent(String content) {
+        return "\"" + DigestUtils.md5DigestAsHex(content.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    public static Long version(String tag) {
+        if (tag == null || tag.isBlank() || tag.trim().equals("*")) {
+            return null;
+        }
+        String value = tag.trim();
+        if (value.startsWith("W/") || value.length() < 2 || !value.startsWith("\"") || !value.endsWith("\"")) {
+            throw new PreconditionFailedException("A strong entity tag is required: " + tag);
+        }
+        value = value.substring(1, value.length() - 1);
+        int separator = value.indexOf(SEPARATOR);
+        try {
+            return Long.parseLong(separator < 0 ? value : value.substring(0, separator));
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException("Unknown entity tag: " + tag);
+        }
+    }
+
+    public static void checkVersion(Long expected, Long actual) {
+        if (expected != null && !expected.equals(actual)) {
+            throw new PreconditionFailedException("The resource was modified, current version: " + actual);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.web;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class LoadShedder {
+    private static final double SMOOTHING = 0.2;
+    private final MeterRegistry meterRegistry;
+    private final double latencyThresholdNanos;
+    private final double pendingThreshold;
+    private volatile double latencyEwmaNanos;
+    private volatile Collection<Gauge> pendingGauges = List.of();
+
+    public LoadShedder(MeterRegistry meterRegistry, Duration latencyThreshold, int pendingThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+        this.pendingThreshold = pendingThreshold;
+    }
+
+    public boolean shouldShed() {
+        double overload = getOverload();
+        return overload > 1 && ThreadLocalRandom.current().nextDouble() < 1 - 1 / overload;
+    }
+
+    public void record(long latencyNanos) {
+        double current = latencyEwmaNanos;
+        latencyEwmaNanos = current == 0 ? latencyNanos : current + SMOOTHING * (latencyNanos - current);
+    }
+
+    public double getOverload() {
+        return Math.max(latencyEwmaNanos / latencyThresholdNanos, getPendingConnections() / pendingThreshold);
+    }
+
+    private double getPendingConnections() {
+        Collection<Gauge> gauges = pendingGauges;
+        if (gauges.isEmpty()) {
+            gauges = List.copyOf(meterRegistry.find("hikaricp.connections.pending").gauges());
+            gauges = gauges.isEmpty() ? List.copyOf(meterRegistry.find("shareit.jdbc.gate.waiting").gauges()) : gauges;
+            pendingGauges = gauges;
+        }
+        return gauges.stream().mapToDouble(Gauge::value).sum();
+    }
+}
@@ -0,0 +1,73 @@
+package ru.practicum.shareit.web;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+public class RateLimitInterceptor implements HandlerInterceptor {
+    private static final String USER_HEADER = "X-Sharer-User-Id";
+    private static final String STARTED_AT = RateLimitInterceptor.class.getName() + ".startedAt";
+    private final TokenBucketRateLimiter rateLimiter;
+    private final LoadShedder loadShedder;
+    private final Duration shedRetryAfter;
+    private final Counter limited;
+    private final Counter shed;
+
+    public RateLimitInterceptor(TokenBucketRateLimiter rateLimiter, LoadShedder loadShedder, Duration shedRetryAfter,
+                                MeterRegistry meterRegistry) {
+        this.rateLimiter = rateLimiter;
+        this.loadShedder = loadShedder;
+        this.shedRetryAfter = shedRetryAfter;
+        this.limited = meterRegistry.counter("shareit.requests.rejected", "reason", "rate-limit");
+        this.shed = meterRegistry.counter("shareit.requests.rejected", "reason", "load-shedding");
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws IOException {
+        if (!(handler instanceof HandlerMethod handlerMethod) || !handlerMethod.hasMethodAnnotation(RateLimited.class)) {
+            return true;
+        }
+        if (loadShedder != null && loadShedder.shouldShed()) {
+            shed.increment();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, shedRetryAfter.toNanos(), "Server is overloaded");
+            return false;
+        }
+        String userId = request.getHeader(USER_HEADER);
+        long waitNanos = rateLimiter.tryAcquire(userId == null ? request.getRemoteAddr() : userId);
+        if (waitNanos > 0) {
+            limited.increment();
+            log.warn("Rate limit exceeded for user {}", userId);
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, waitNanos, "Too many requests");
+            return false;
+        }
+        request.setAttribute(STARTED_AT, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (loadShedder != null && request.getAttribute(STARTED_AT) instanceof Long startedAt) {
+            loadShedder.record(System.nanoTime() - startedAt);
+        }
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, long retryAfterNanos, String message)
+            throws IOException {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(retryAfterNanos + 999_999_999L));
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.sendError(status.value(), message);
+    }
+}
@@ -0,0 +1,4 @@
+package ru.practicum.shareit.web;
+
+public record Tagged<T>(T body, String eTag) {
+}
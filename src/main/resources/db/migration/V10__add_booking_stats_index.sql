@@ -0,0 +1 @@
+CREATE INDEX IF NOT EXISTS ix_bookings_item_start_stats ON bookings (item_id, start) INCLUDE (finish, status);
@@ -0,0 +1,14 @@
+-- bookings is partitioned by start and keyed by (booking_id, start); carrying the start lets the summary joins
+-- prune to a single partition instead of probing every one.
+ALTER TABLE item_booking_summary ADD COLUMN IF NOT EXISTS last_booking_start TIMESTAMP WITHOUT TIME ZONE;
+ALTER TABLE item_booking_summary ADD COLUMN IF NOT EXISTS next_booking_start TIMESTAMP WITHOUT TIME ZONE;
+
+UPDATE item_booking_summary s
+SET last_booking_start = b.start
+FROM bookings b
+WHERE b.booking_id = s.last_booking_id;
+
+UPDATE item_booking_summary s
+SET next_booking_start = b.start
+FROM bookings b
+WHERE b.booking_id = s.next_booking_id;
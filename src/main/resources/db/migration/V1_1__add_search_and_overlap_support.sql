@@ -0,0 +1,21 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+CREATE INDEX IF NOT EXISTS ix_items_name_trgm ON items USING gin (name gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS ix_items_description_trgm ON items USING gin (description gin_trgm_ops);
+
+-- Databases baselined at V1 may already hold overlapping active bookings; the later one of each overlapping pair
+-- is rejected so that the exclusion constraint can be added.
+UPDATE bookings b
+SET status = 'REJECTED'
+WHERE b.status IN ('WAITING', 'APPROVED')
+  AND EXISTS (SELECT 1
+              FROM bookings o
+              WHERE o.item_id = b.item_id
+                AND o.booking_id < b.booking_id
+                AND o.status IN ('WAITING', 'APPROVED')
+                AND tsrange(o.start, o.finish) && tsrange(b.start, b.finish));
+
+ALTER TABLE bookings
+    ADD CONSTRAINT ex_booking_overlap EXCLUDE USING gist (item_id WITH =, tsrange(start, finish) WITH &&)
+        WHERE (status IN ('WAITING', 'APPROVED'));
@@ -0,0 +1,9 @@
+CREATE INDEX IF NOT EXISTS ix_items_owner ON items (owner_id, item_id);
+
+CREATE INDEX IF NOT EXISTS ix_bookings_booker_start ON bookings (booker_id, start, booking_id);
+CREATE INDEX IF NOT EXISTS ix_bookings_booker_status_start ON bookings (booker_id, status, start, booking_id);
+CREATE INDEX IF NOT EXISTS ix_bookings_item_start ON bookings (item_id, start, booking_id);
+CREATE INDEX IF NOT EXISTS ix_bookings_item_status_start ON bookings (item_id, status, start, booking_id);
+CREATE INDEX IF NOT EXISTS ix_bookings_item_booker_finish ON bookings (item_id, booker_id, finish);
+
+CREATE INDEX IF NOT EXISTS ix_comments_item ON comments (item_id, comment_id);
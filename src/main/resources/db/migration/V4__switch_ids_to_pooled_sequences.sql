@@ -0,0 +1,24 @@
+CREATE SEQUENCE IF NOT EXISTS users_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS items_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS bookings_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS comments_seq INCREMENT BY 50;
+
+SELECT setval('users_seq', COALESCE(MAX(user_id), 0) + 50, false) FROM users;
+SELECT setval('items_seq', COALESCE(MAX(item_id), 0) + 50, false) FROM items;
+SELECT setval('bookings_seq', COALESCE(MAX(booking_id), 0) + 50, false) FROM bookings;
+SELECT setval('comments_seq', COALESCE(MAX(comment_id), 0) + 50, false) FROM comments;
+
+ALTER TABLE users ALTER COLUMN user_id DROP IDENTITY IF EXISTS;
+ALTER TABLE items ALTER COLUMN item_id DROP IDENTITY IF EXISTS;
+ALTER TABLE bookings ALTER COLUMN booking_id DROP IDENTITY IF EXISTS;
+ALTER TABLE comments ALTER COLUMN comment_id DROP IDENTITY IF EXISTS;
+
+ALTER TABLE users ALTER COLUMN user_id SET DEFAULT nextval('users_seq');
+ALTER TABLE items ALTER COLUMN item_id SET DEFAULT nextval('items_seq');
+ALTER TABLE bookings ALTER COLUMN booking_id SET DEFAULT nextval('bookings_seq');
+ALTER TABLE comments ALTER COLUMN comment_id SET DEFAULT nextval('comments_seq');
+
+ALTER SEQUENCE users_seq OWNED BY users.user_id;
+ALTER SEQUENCE items_seq OWNED BY items.item_id;
+ALTER SEQUENCE bookings_seq OWNED BY bookings.booking_id;
+ALTER SEQUENCE comments_seq OWNED BY comments.comment_id;
@@ -0,0 +1,17 @@
+CREATE SEQUENCE IF NOT EXISTS booking_outbox_seq INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS booking_outbox
+(
+    event_id     BIGINT DEFAULT nextval('booking_outbox_seq') NOT NULL,
+    booking_id   BIGINT                                       NOT NULL,
+    item_id      BIGINT                                       NOT NULL,
+    status       VARCHAR(20)                                  NOT NULL,
+    created_at   TIMESTAMP WITHOUT TIME ZONE                  NOT NULL,
+    published_at TIMESTAMP WITHOUT TIME ZONE,
+    CONSTRAINT pk_booking_outbox PRIMARY KEY (event_id)
+);
+
+ALTER SEQUENCE booking_outbox_seq OWNED BY booking_outbox.event_id;
+
+CREATE INDEX IF NOT EXISTS ix_booking_outbox_unpublished ON booking_outbox (event_id) WHERE published_at IS NULL;
+CREATE INDEX IF NOT EXISTS ix_booking_outbox_published_at ON booking_outbox (published_at);
@@ -0,0 +1,91 @@
+ALTER TABLE bookings RENAME TO bookings_legacy;
+ALTER SEQUENCE bookings_seq OWNED BY NONE;
+
+CREATE TABLE bookings
+(
+    booking_id BIGINT DEFAULT nextval('bookings_seq') NOT NULL,
+    start      TIMESTAMP WITHOUT TIME ZONE            NOT NULL,
+    finish     TIMESTAMP WITHOUT TIME ZONE            NOT NULL,
+    item_id    BIGINT                                 NOT NULL,
+    booker_id  BIGINT                                 NOT NULL,
+    status     VARCHAR(20)                            NOT NULL,
+    FOREIGN KEY (item_id) REFERENCES items (item_id) ON DELETE CASCADE,
+    FOREIGN KEY (booker_id) REFERENCES users (user_id) ON DELETE CASCADE
+) PARTITION BY RANGE (start);
+
+CREATE TABLE bookings_default PARTITION OF bookings DEFAULT;
+ALTER TABLE bookings_default
+    ADD CONSTRAINT ex_bookings_default_overlap EXCLUDE USING gist (item_id WITH =, tsrange(start, finish) WITH &&)
+        WHERE (status IN ('WAITING', 'APPROVED'));
+
+-- Creates the monthly partitions covering [from_month, to_month), moving any rows that already landed
+-- in the default partition. Overlapping bookings are excluded within each partition.
+CREATE OR REPLACE FUNCTION create_booking_partitions(from_month DATE, to_month DATE) RETURNS INTEGER AS
+$$
+DECLARE
+    month_start DATE := date_trunc('month', from_month);
+    month_end   DATE;
+    partition   TEXT;
+    created     INTEGER := 0;
+BEGIN
+    WHILE month_start < to_month
+        LOOP
+            month_end := month_start + INTERVAL '1 month';
+            partition := 'bookings_' || to_char(month_start, 'YYYYMM');
+            IF to_regclass(partition) IS NULL THEN
+                EXECUTE format('CREATE TABLE %I (LIKE bookings INCLUDING DEFAULTS)', partition);
+                EXECUTE format('WITH moved AS (DELETE FROM bookings_default WHERE start >= %L AND start < %L '
+                                   'RETURNING *) INSERT INTO %I SELECT * FROM moved',
+                               month_start, month_end, partition);
+                EXECUTE format('ALTER TABLE %I ADD CONSTRAINT %I EXCLUDE USING gist '
+                                   '(item_id WITH =, tsrange(start, finish) WITH &&) '
+                                   'WHERE (status IN (''WAITING'', ''APPROVED''))',
+                               partition, 'ex_' || partition || '_overlap');
+                EXECUTE format('ALTER TABLE bookings ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                               partition, month_start, month_end);
+                created := created + 1;
+            END IF;
+            month_start := month_end;
+        END LOOP;
+    RETURN created;
+END;
+$$ LANGUAGE plpgsql;
+
+SELECT create_booking_partitions(COALESCE((SELECT MIN(start) FROM bookings_legacy), now())::DATE,
+                                 (date_trunc('month', now()) + INTERVAL '4 months')::DATE);
+
+INSERT INTO bookings (booking_id, start, finish, item_id, booker_id, status)
+SELECT booking_id, start, finish, item_id, booker_id, status
+FROM bookings_legacy;
+
+DROP TABLE bookings_legacy;
+
+ALTER TABLE bookings ADD CONSTRAINT pk_booking PRIMARY KEY (booking_id, start);
+ALTER SEQUENCE bookings_seq OWNED BY bookings.booking_id;
+
+CREATE INDEX IF NOT EXISTS ix_bookings_booker_start ON bookings (booker_id, start, booking_id);
+CREATE INDEX IF NOT EXISTS ix_bookings_booker_status_start ON bookings (booker_id, status, start, booking_id);
+CREATE INDEX IF NOT EXISTS ix_bookings_item_start ON bookings (item_id, start, booking_id);
+CREATE INDEX IF NOT EXISTS ix_bookings_item_status_start ON bookings (item_id, status, start, booking_id);
+CREATE INDEX IF NOT EXISTS ix_bookings_item_booker_finish ON bookings (item_id, booker_id, finish);
+
+-- Finished bookings are append-only once archived, so pages are packed full.
+CREATE TABLE IF NOT EXISTS bookings_archive
+(
+    booking_id BIGINT                      NOT NULL,
+    start      TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    finish     TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    item_id    BIGINT                      NOT NULL,
+    booker_id  BIGINT                      NOT NULL,
+    status     VARCHAR(20)                 NOT NULL,
+    CONSTRAINT pk_bookings_archive PRIMARY KEY (booking_id),
+    FOREIGN KEY (item_id) REFERENCES items (item_id) ON DELETE CASCADE,
+    FOREIGN KEY (booker_id) REFERENCES users (user_id) ON DELETE CASCADE
+) WITH (fillfactor = 100);
+
+CREATE INDEX IF NOT EXISTS ix_bookings_archive_booker_start ON bookings_archive (booker_id, start, booking_id)
+    WITH (fillfactor = 100);
+CREATE INDEX IF NOT EXISTS ix_bookings_archive_item_start ON bookings_archive (item_id, start, booking_id)
+    WITH (fillfactor = 100);
+CREATE INDEX IF NOT EXISTS ix_bookings_archive_item_booker_finish ON bookings_archive (item_id, booker_id, finish)
+    WITH (fillfactor = 100);
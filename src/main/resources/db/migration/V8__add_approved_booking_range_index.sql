@@ -0,0 +1,2 @@
+CREATE INDEX IF NOT EXISTS ix_bookings_item_approved_range ON bookings USING gist (item_id, tsrange(start, finish))
+    WHERE status = 'APPROVED';
@@ -0,0 +1 @@
+CREATE INDEX IF NOT EXISTS ix_bookings_waiting_start ON bookings (start, booking_id) WHERE status = 'WAITING';
@@ -0,0 +1,171 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class QueryPlanTest extends PostgresIntegrationTest {
+    private static final String LIVE_AND_ARCHIVED = """
+            (select booking_id, start, finish, item_id, booker_id, status, version from bookings
+             union all
+             select booking_id, start, finish, item_id, booker_id, status, version from bookings_archive)
+            """;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    static Stream<Arguments> accessPaths() {
+        return Stream.of(
+                Arguments.of("bookings of booker", """
+                        select * from bookings b
+                        join items i on i.item_id = b.item_id
+                        join users u on u.user_id = b.booker_id
+                        where b.booker_id = 1
+                        and b.start >= timestamp '2000-01-01' and (b.start > timestamp '2000-01-01' or b.booking_id > 0)
+                        order by b.start, b.booking_id
+                        limit 100
+                        """),
+                Arguments.of("bookings of booker by status", """
+                        select * from bookings b
+                        join items i on i.item_id = b.item_id
+                        join users u on u.user_id = b.booker_id
+                        where b.booker_id = 1
+                        and b.status = 'WAITING'
+                        and b.start >= timestamp '2000-01-01' and (b.start > timestamp '2000-01-01' or b.booking_id > 0)
+                        order by b.start, b.booking_id
+                        limit 100
+                        """),
+                Arguments.of("current bookings of booker", """
+                        select * from bookings b
+                        join items i on i.item_id = b.item_id
+                        join users u on u.user_id = b.booker_id
+                        where b.booker_id = 1
+                        and b.start < timestamp '2030-01-01'
+                        and b.finish >= timestamp '2030-01-01'
+                        order by b.start, b.booking_id
+                        limit 100
+                        """),
+                Arguments.of("past bookings of booker", """
+                        select * from %s as b
+                        join items i on i.item_id = b.item_id
+                        join users u on u.user_id = b.booker_id
+                        where b.booker_id = 1
+                        and b.start < timestamp '2030-01-01'
+                        and b.finish < timestamp '2030-01-01'
+                        order by b.start, b.booking_id
+                        limit 100
+                        """.formatted(LIVE_AND_ARCHIVED)),
+                Arguments.of("bookings of owner", """
+                        select * from bookings b
+                        join items i on i.item_id = b.item_id
+                        join users u on u.user_id = b.booker_id
+                        where i.owner_id = 1
+                        and b.start >= timestamp '2000-01-01' and (b.start > timestamp '2000-01-01' or b.booking_id > 0)
+                        order by b.start, b.booking_id
+                        limit 100
+                        """),
+                Arguments.of("bookings of owner by status", """
+                        select * from bookings b
+                        join items i on i.item_id = b.item_id
+                        join users u on u.user_id = b.booker_id
+                        where i.owner_id = 1
+                        and b.status = 'REJECTED'
+                        order by b.start, b.booking_id
+                        limit 100
+                        """),
+                Arguments.of("past bookings of owner", """
+                        select * from %s as b
+                        join items i on i.item_id = b.item_id
+                        join users u on u.user_id = b.booker_id
+                        where i.owner_id = 1
+                        and b.start < timestamp '2030-01-01'
+                        and b.finish < timestamp '2030-01-01'
+                        order by b.start, b.booking_id
+                        limit 100
+                        """.formatted(LIVE_AND_ARCHIVED)),
+                Arguments.of("last and next bookings of items", """
+                        select * from (select b.*, row_number() over (partition by b.item_id
+                                                                      order by b.start desc, b.booking_id desc) as rn
+                                       from bookings b
+                                       where b.item_id in (1, 2, 3)
+                                       and b.start < timestamp '2030-01-01') as last_bookings
+                        where rn = 1
+                        """),
+                Arguments.of("overlapping active bookings", """
+                        select exists(select 1 from bookings b
+                                      where b.item_id = 1
+                                      and b.status in ('WAITING', 'APPROVED')
+                                      and b.start < timestamp '2030-01-02'
+                                      and b.finish > timestamp '2030-01-01')
+                        """),
+                Arguments.of("finished bookings of booker for item", """
+                        select exists(select 1 from bookings b
+                                      where b.item_id = 1 and b.booker_id = 2
+                                      and b.start < timestamp '2030-01-01' and b.finish < timestamp '2030-01-01')
+                            or exists(select 1 from bookings_archive a
+                                      where a.item_id = 1 and a.booker_id = 2 and a.finish < timestamp '2030-01-01')
+                        """),
+                Arguments.of("stale waiting bookings", """
+                        select w.booking_id, w.start from bookings w
+                        where w.status = 'WAITING'
+                        and w.start < timestamp '2030-01-01'
+                        order by w.start, w.booking_id
+                        limit 200
+                        """),
+                Arguments.of("items rented in a window", """
+                        select i.* from items i
+                        where i.available
+                        and (i.name ilike '%drill%' or i.description ilike '%drill%')
+                        and not exists (select 1 from bookings b
+                                        where b.item_id = i.item_id
+                                        and b.status = 'APPROVED'
+                                        and b.start < timestamp '2030-01-02'
+                                        and tsrange(b.start, b.finish)
+                                            && tsrange(timestamp '2030-01-01', timestamp '2030-01-02'))
+                        """),
+                Arguments.of("items of owner", "select * from items i where i.owner_id = 1"),
+                Arguments.of("comments of items", """
+                        select * from comments c
+                        join users u on u.user_id = c.author_id
+                        where c.item_id in (1, 2, 3)
+                        """),
+                Arguments.of("last and next bookings from summary", """
+                        select * from item_booking_summary s
+                        left join bookings lb on lb.booking_id = s.last_booking_id and lb.start = s.last_booking_start
+                        left join bookings nb on nb.booking_id = s.next_booking_id and nb.start = s.next_booking_start
+                        where s.item_id = 1
+                        """),
+                Arguments.of("expired item booking summaries", """
+                        select s.item_id from item_booking_summary s
+                        where s.valid_until <= timestamp '2030-01-01'
+                        order by s.valid_until
+                        limit 500
+                        """),
+                Arguments.of("unpublished booking events", """
+                        select * from booking_outbox o
+                        where o.published_at is null
+                        order by o.event_id
+                        limit 500
+                        """));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("accessPaths")
+    void accessPathDoesNotScanWholeTable(String name, String sql) {
+        List<String> plan = transactionTemplate.execute(status -> {
+            jdbcTemplate.execute("set local enable_seqscan = off");
+            return jdbcTemplate.queryForList("explain " + sql, String.class);
+        });
+        String text = String.join("\n", plan);
+        assertFalse(text.contains("Seq Scan"), () -> name + " plans a sequential scan:\n" + text);
+    }
+}
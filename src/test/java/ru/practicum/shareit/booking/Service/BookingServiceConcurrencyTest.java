@@ -0,0 +1,107 @@
+package ru.practicum.shareit.booking.Service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.PostgresIntegrationTest;
+import ru.practicum.shareit.booking.dto.BookingDtoRequest;
+import ru.practicum.shareit.exception.ConflictException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemDbStorage;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserDbStorage;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BookingServiceConcurrencyTest extends PostgresIntegrationTest {
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS = 400;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private UserDbStorage userDbStorage;
+    @Autowired
+    private ItemDbStorage itemDbStorage;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void concurrentOverlappingBookingsAcrossPartitionsNeverOverlap() throws Exception {
+        User owner = userDbStorage.save(User.builder().name("owner").email("stress-owner@mail.ru").build());
+        User booker = userDbStorage.save(User.builder().name("booker").email("stress-booker@mail.ru").build());
+        Item item = itemDbStorage.save(Item.builder()
+                .name("drill")
+                .description("stress test drill")
+                .available(true)
+                .owner(owner)
+                .build());
+        LocalDateTime boundary = LocalDate.now().withDayOfMonth(1).plusMonths(2).atStartOfDay();
+        Random random = new Random(42);
+        List<BookingDtoRequest> requests = new ArrayList<>();
+        for (int i = 0; i < ATTEMPTS; i++) {
+            LocalDateTime start = boundary.plusHours(random.nextInt(144) - 72);
+            requests.add(BookingDtoRequest.builder()
+                    .itemId(item.getId())
+                    .start(start)
+                    .end(start.plusHours(1 + random.nextInt(24)))
+                    .build());
+        }
+
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        CountDownLatch go = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (BookingDtoRequest request : requests) {
+            futures.add(executor.submit(() -> {
+                go.await();
+                try {
+                    bookingService.createBooking(booker.getId(), request);
+                    created.incrementAndGet();
+                } catch (ConflictException e) {
+                    conflicts.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        go.countDown();
+        try {
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(ATTEMPTS, created.get() + conflicts.get());
+        assertTrue(created.get() > 0);
+        assertTrue(conflicts.get() > 0);
+        assertEquals(0, countOverlaps(item.getId()));
+    }
+
+    private long countOverlaps(Long itemId) {
+        Long overlaps = jdbcTemplate.queryForObject("""
+                select count(*) from bookings a
+                join bookings b on b.item_id = a.item_id and b.booking_id > a.booking_id
+                where a.item_id = ?
+                and a.status in ('WAITING', 'APPROVED')
+                and b.status in ('WAITING', 'APPROVED')
+                and a.start < b.finish
+                and b.start < a.finish
+                """, Long.class, itemId);
+        return overlaps == null ? 0 : overlaps;
+    }
+}
@@ -0,0 +1,151 @@
+package ru.practicum.shareit.booking.Service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.RequestState;
+import ru.practicum.shareit.booking.model.Role;
+import ru.practicum.shareit.booking.model.Status;
+import ru.practicum.shareit.booking.repository.BookingDbStorage;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemDbStorage;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserDbStorage;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.datasource.url=jdbc:h2:mem:query-count;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.flyway.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "shareit.scheduling.enabled=false",
+        "shareit.booking-archive.enabled=false",
+        "shareit.booking-expiry.enabled=false"})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BookingServiceQueryCountTest {
+    private static final int HEAVY_ITEMS = 10;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private UserDbStorage userDbStorage;
+    @Autowired
+    private ItemDbStorage itemDbStorage;
+    @Autowired
+    private BookingDbStorage bookingDbStorage;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private CacheManager cacheManager;
+    private Statistics statistics;
+    private User lightOwner;
+    private User lightBooker;
+    private User heavyOwner;
+    private User heavyBooker;
+
+    @BeforeAll
+    void seed() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        lightOwner = saveUser("light-owner");
+        lightBooker = saveUser("light-booker");
+        heavyOwner = saveUser("heavy-owner");
+        heavyBooker = saveUser("heavy-booker");
+        List<Booking> bookings = new ArrayList<>();
+        bookings.addAll(bookingsOf(saveItem(lightOwner, "light"), lightBooker));
+        for (int i = 0; i < HEAVY_ITEMS; i++) {
+            bookings.addAll(bookingsOf(saveItem(heavyOwner, "heavy " + i), heavyBooker));
+        }
+        bookingDbStorage.saveAll(bookings);
+    }
+
+    static Stream<Arguments> statesAndRoles() {
+        return Arrays.stream(RequestState.values())
+                .flatMap(state -> Arrays.stream(Role.values()).map(role -> Arguments.of(state, role)));
+    }
+
+    @ParameterizedTest
+    @MethodSource("statesAndRoles")
+    void listingQueryCountDoesNotDependOnResultSize(RequestState state, Role role) {
+        User light = role == Role.OWNER ? lightOwner : lightBooker;
+        User heavy = role == Role.OWNER ? heavyOwner : heavyBooker;
+
+        List<BookingDto> lightBookings = new ArrayList<>();
+        long lightStatements = countStatements(() -> lightBookings.addAll(
+                bookingService.getAllBookingsFromUser(light.getId(), state, role, null, 0, 100)));
+        List<BookingDto> heavyBookings = new ArrayList<>();
+        long heavyStatements = countStatements(() -> heavyBookings.addAll(
+                bookingService.getAllBookingsFromUser(heavy.getId(), state, role, null, 0, 100)));
+
+        assertTrue(heavyBookings.size() > lightBookings.size());
+        heavyBookings.forEach(booking -> {
+            assertNotNull(booking.getItem().getName());
+            assertNotNull(booking.getBooker().getName());
+        });
+        assertEquals(lightStatements, heavyStatements,
+                "Statements for " + lightBookings.size() + " and " + heavyBookings.size() + " bookings");
+    }
+
+    private long countStatements(Runnable call) {
+        cacheManager.getCacheNames().forEach(name -> Objects.requireNonNull(cacheManager.getCache(name)).clear());
+        statistics.clear();
+        call.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private User saveUser(String name) {
+        return userDbStorage.save(User.builder()
+                .name(name)
+                .email(name + "@mail.ru")
+                .build());
+    }
+
+    private Item saveItem(User owner, String name) {
+        return itemDbStorage.save(Item.builder()
+                .name(name)
+                .description(name + " description")
+                .available(true)
+                .owner(owner)
+                .build());
+    }
+
+    private List<Booking> bookingsOf(Item item, User booker) {
+        LocalDateTime now = LocalDateTime.now();
+        return List.of(
+                booking(item, booker, now.minusDays(10), now.minusDays(9), Status.APPROVED),
+                booking(item, booker, now.minusHours(1), now.plusHours(1), Status.WAITING),
+                booking(item, booker, now.plusDays(5), now.plusDays(6), Status.REJECTED),
+                booking(item, booker, now.plusDays(10), now.plusDays(11), Status.EXPIRED));
+    }
+
+    private Booking booking(Item item, User booker, LocalDateTime start, LocalDateTime end, Status status) {
+        return Booking.builder()
+                .item(item)
+                .booker(booker)
+                .start(start)
+                .end(end)
+                .status(status)
+                .build();
+    }
+}
@@ -0,0 +1,76 @@
+package ru.practicum.shareit.config;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import ru.practicum.shareit.PostgresIntegrationTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReplicaRoutingTest extends PostgresIntegrationTest {
+    private static final PostgreSQLContainer<?> REPLICA = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withDatabaseName("replica");
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private ReplicaPool replicaPool;
+
+    static {
+        REPLICA.start();
+        Flyway.configure()
+                .dataSource(REPLICA.getJdbcUrl(), REPLICA.getUsername(), REPLICA.getPassword())
+                .load()
+                .migrate();
+    }
+
+    @DynamicPropertySource
+    static void replicaProperties(DynamicPropertyRegistry registry) {
+        registry.add("shareit.datasource.replicas.enabled", () -> "true");
+        registry.add("shareit.datasource.replicas.nodes[0].url", REPLICA::getJdbcUrl);
+        registry.add("shareit.datasource.replicas.nodes[0].username", REPLICA::getUsername);
+        registry.add("shareit.datasource.replicas.nodes[0].password", REPLICA::getPassword);
+        registry.add("shareit.datasource.replicas.health-check-interval", () -> "1h");
+    }
+
+    @BeforeEach
+    void checkReplica() {
+        replicaPool.checkHealth();
+        assertEquals(1, replicaPool.getHealthyCount());
+    }
+
+    @Test
+    void readOnlyTransactionsUseReplica() {
+        assertEquals(REPLICA.getDatabaseName(), databaseName(true));
+    }
+
+    @Test
+    void writeTransactionsUsePrimary() {
+        assertEquals(POSTGRES.getDatabaseName(), databaseName(false));
+    }
+
+    @Test
+    void recentWritersReadFromPrimary() {
+        assertEquals(POSTGRES.getDatabaseName(), ReadYourWrites.callWith(true, () -> databaseName(true)));
+    }
+
+    @Test
+    void readsFallBackToPrimaryWithoutHealthyReplica() {
+        replicaPool.markUnhealthy(replicaPool.next());
+        assertEquals(POSTGRES.getDatabaseName(), databaseName(true));
+    }
+
+    private String databaseName(boolean readOnly) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(readOnly);
+        return transactionTemplate.execute(status -> jdbcTemplate.queryForObject("select current_database()", String.class));
+    }
+}